@@ -0,0 +1,199 @@
+package Game.Board;
+
+import Game.Pieces.PieceColor;
+
+/*
+Static helpers for 64-bit bitboards. A square index runs from 0 at (0, 0) to 63 at (7, 7), so the square
+for a board location is y * 8 + x, and bit n of a bitboard is set when square n is part of the set.
+ */
+public final class Bitboards {
+
+	/*
+	----------------------------
+	Constants
+	----------------------------
+	 */
+
+	// piece type indices, used to index the per-piece bitboards
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+	public static final int PIECE_TYPES = 6;
+
+	// color indices, used to index the per-color bitboards
+	public static final int LIGHT = 0;
+	public static final int DARK = 1;
+
+	// the identifiers used by Piece.iden(), indexed by piece type
+	private static final char[] IDENTIFIERS = {'P', 'N', 'B', 'R', 'Q', 'K'};
+
+	public static final long FILE_A = 0x0101010101010101L;
+	public static final long FILE_H = FILE_A << 7;
+	public static final long RANK_1 = 0xFFL;
+	public static final long RANK_2 = RANK_1 << 8;
+	public static final long RANK_7 = RANK_1 << 48;
+	public static final long RANK_8 = RANK_1 << 56;
+
+	// directions for the ray functions, in the order N, NE, E, SE, S, SW, W, NW
+	public static final int NORTH = 0;
+	public static final int NORTH_EAST = 1;
+	public static final int EAST = 2;
+	public static final int SOUTH_EAST = 3;
+	public static final int SOUTH = 4;
+	public static final int SOUTH_WEST = 5;
+	public static final int WEST = 6;
+	public static final int NORTH_WEST = 7;
+
+	// the rotation for a single step in each direction, along with the squares which are not wrapped into
+	private static final int[] SHIFTS = {8, 9, 1, -7, -8, -9, -1, 7};
+	private static final long[] AVOID_WRAP = {
+			~RANK_1,
+			~(RANK_1 | FILE_A),
+			~FILE_A,
+			~(RANK_8 | FILE_A),
+			~RANK_8,
+			~(RANK_8 | FILE_H),
+			~FILE_H,
+			~(RANK_1 | FILE_H)
+	};
+
+	private Bitboards() {}
+
+	/*
+	----------------------------
+	Square and Color Helpers
+	----------------------------
+	 */
+
+	public static int square(int x, int y) { return (y << 3) | x; }
+
+	public static int fileOf(int square) { return square & 7; }
+
+	public static int rankOf(int square) { return square >>> 3; }
+
+	public static long bit(int square) { return 1L << square; }
+
+	/*
+	Returns the square of the lowest set bit in the bitboard, or 64 if the bitboard is empty
+	 */
+	public static int first(long b) { return Long.numberOfTrailingZeros(b); }
+
+	public static int colorIndex(PieceColor color) {
+		return (color == PieceColor.light) ? LIGHT : DARK;
+	}
+
+	public static PieceColor color(int index) {
+		return (index == LIGHT) ? PieceColor.light : PieceColor.dark;
+	}
+
+	/*
+	Translates a piece identifier (as returned by Piece.iden()) into its piece type index
+	@param iden - the identifier of the piece
+	@return - the piece type index, or -1 if the identifier is not recognized
+	 */
+	public static int typeOf(char iden) {
+		switch (iden) {
+			case 'P': return PAWN;
+			case 'N': return KNIGHT;
+			case 'B': return BISHOP;
+			case 'R': return ROOK;
+			case 'Q': return QUEEN;
+			case 'K': return KING;
+		}
+		return -1;
+	}
+
+	public static char iden(int type) { return IDENTIFIERS[type]; }
+
+	/*
+	----------------------------
+	Shifts and Attack Sets
+	----------------------------
+	 */
+
+	/*
+	Shifts every square in the bitboard one step in the given direction, dropping squares that fall off the board
+	 */
+	public static long shift(long b, int direction) {
+		return Long.rotateLeft(b, SHIFTS[direction]) & AVOID_WRAP[direction];
+	}
+
+	/*
+	Fills from the given squares in a direction until the fill runs into a square which is not empty
+	(Kogge-Stone occluded fill). The starting squares are included in the result.
+	@param gen - the squares to fill from
+	@param empty - the squares which the fill may pass through
+	@param direction - the direction to fill in
+	@return - the filled squares
+	 */
+	private static long occludedFill(long gen, long empty, int direction) {
+		int r = SHIFTS[direction];
+		long pro = empty & AVOID_WRAP[direction];
+		gen |= pro & Long.rotateLeft(gen, r);
+		pro &= Long.rotateLeft(pro, r);
+		gen |= pro & Long.rotateLeft(gen, 2 * r);
+		pro &= Long.rotateLeft(pro, 2 * r);
+		gen |= pro & Long.rotateLeft(gen, 4 * r);
+		return gen;
+	}
+
+	/*
+	Finds the squares attacked along a ray from the given sliders, including the first blocker in the way
+	@param sliders - the squares the rays start from
+	@param empty - the empty squares of the board
+	@param direction - the direction of the ray
+	@return - the attacked squares
+	 */
+	public static long rayAttacks(long sliders, long empty, int direction) {
+		return shift(occludedFill(sliders, empty, direction), direction);
+	}
+
+	public static long rookAttacks(long rooks, long empty) {
+		return rayAttacks(rooks, empty, NORTH) | rayAttacks(rooks, empty, EAST)
+				| rayAttacks(rooks, empty, SOUTH) | rayAttacks(rooks, empty, WEST);
+	}
+
+	public static long bishopAttacks(long bishops, long empty) {
+		return rayAttacks(bishops, empty, NORTH_EAST) | rayAttacks(bishops, empty, SOUTH_EAST)
+				| rayAttacks(bishops, empty, SOUTH_WEST) | rayAttacks(bishops, empty, NORTH_WEST);
+	}
+
+	public static long knightAttacks(long knights) {
+		long l1 = (knights >>> 1) & ~FILE_H;
+		long l2 = (knights >>> 2) & ~(FILE_H | FILE_H >>> 1);
+		long r1 = (knights << 1) & ~FILE_A;
+		long r2 = (knights << 2) & ~(FILE_A | FILE_A << 1);
+		long h1 = l1 | r1;
+		long h2 = l2 | r2;
+		return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+	}
+
+	public static long kingAttacks(long kings) {
+		long attacks = shift(kings, EAST) | shift(kings, WEST);
+		long row = kings | attacks;
+		return attacks | shift(row, NORTH) | shift(row, SOUTH);
+	}
+
+	/*
+	Finds the squares attacked by pawns of the given color
+	@param pawns - the squares of the pawns
+	@param color - the color index of the pawns (light pawns move up in y, dark pawns move down)
+	@return - the squares the pawns attack diagonally
+	 */
+	public static long pawnAttacks(long pawns, int color) {
+		if (color == LIGHT)
+			return shift(pawns, NORTH_EAST) | shift(pawns, NORTH_WEST);
+		return shift(pawns, SOUTH_EAST) | shift(pawns, SOUTH_WEST);
+	}
+
+	/*
+	Moves the pawns one square forward for their color
+	 */
+	public static long pawnPush(long pawns, int color) {
+		return (color == LIGHT) ? pawns << 8 : pawns >>> 8;
+	}
+
+}
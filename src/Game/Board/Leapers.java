@@ -0,0 +1,36 @@
+package Game.Board;
+
+/*
+Precomputed attacks for the pieces which jump to a fixed set of squares (knights, kings and pawn captures).
+The tables are built once when the class loads, so a lookup never allocates or checks offsets against the edges.
+ */
+public final class Leapers {
+
+	private static final long[] KNIGHT_ATTACKS = new long[ 64 ];
+	private static final long[] KING_ATTACKS = new long[ 64 ];
+	private static final long[][] PAWN_ATTACKS = new long[ 2 ][ 64 ];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			long piece = Bitboards.bit(square);
+			KNIGHT_ATTACKS[square] = Bitboards.knightAttacks(piece);
+			KING_ATTACKS[square] = Bitboards.kingAttacks(piece);
+			PAWN_ATTACKS[Bitboards.LIGHT][square] = Bitboards.pawnAttacks(piece, Bitboards.LIGHT);
+			PAWN_ATTACKS[Bitboards.DARK][square] = Bitboards.pawnAttacks(piece, Bitboards.DARK);
+		}
+	}
+
+	private Leapers() {}
+
+	public static long knightAttacks(int square) { return KNIGHT_ATTACKS[square]; }
+
+	public static long kingAttacks(int square) { return KING_ATTACKS[square]; }
+
+	/*
+	Returns the squares a pawn of the given color on the given square attacks diagonally
+	@param color - the color index of the pawn
+	@param square - the square of the pawn
+	 */
+	public static long pawnAttacks(int color, int square) { return PAWN_ATTACKS[color][square]; }
+
+}
@@ -0,0 +1,162 @@
+package Game.Board;
+
+/*
+Precomputed sliding piece attacks using magic bitboards. The attack set of a rook or bishop on a square is a
+single table lookup: the occupancy along the piece's lines is masked, multiplied by the square's magic number and
+shifted down to an index into that square's table of attack sets. The tables are built once when the class loads.
+ */
+public final class Magics {
+
+	// magic multipliers for each square, found offline so every relevant occupancy maps to a correct attack set
+	private static final long[] ROOK_MAGICS = {
+			0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+			0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+			0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+			0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+			0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+			0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+			0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+			0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+			0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+			0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+			0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+			0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+			0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+			0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+			0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+			0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+	};
+
+	private static final long[] BISHOP_MAGICS = {
+			0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+			0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+			0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+			0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+			0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+			0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+			0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+			0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+			0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+			0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+			0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+			0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+			0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+			0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+			0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+			0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+	};
+
+	private static final long[] ROOK_MASKS = new long[ 64 ];
+	private static final long[] BISHOP_MASKS = new long[ 64 ];
+	private static final int[] ROOK_SHIFTS = new int[ 64 ];
+	private static final int[] BISHOP_SHIFTS = new int[ 64 ];
+	private static final long[][] ROOK_ATTACKS = new long[ 64 ][];
+	private static final long[][] BISHOP_ATTACKS = new long[ 64 ][];
+
+	// the squares strictly between two squares, and the whole line through them, if they share a rank, file or
+	// diagonal (both are empty otherwise)
+	private static final long[][] BETWEEN = new long[ 64 ][ 64 ];
+	private static final long[][] LINE = new long[ 64 ][ 64 ];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			ROOK_MASKS[square] = relevantOccupancy(square, true);
+			BISHOP_MASKS[square] = relevantOccupancy(square, false);
+			ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+			BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+			ROOK_ATTACKS[square] = fillTable(square, true, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square]);
+			BISHOP_ATTACKS[square] =
+					fillTable(square, false, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square]);
+		}
+
+		for (int a = 0; a < 64; a++) {
+			for (int b = 0; b < 64; b++) {
+				if (a == b)
+					continue;
+				long ends = Bitboards.bit(a) | Bitboards.bit(b);
+				if ((rookAttacks(a, 0L) & Bitboards.bit(b)) != 0) {
+					BETWEEN[a][b] = rookAttacks(a, ends) & rookAttacks(b, ends);
+					LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | ends;
+				} else if ((bishopAttacks(a, 0L) & Bitboards.bit(b)) != 0) {
+					BETWEEN[a][b] = bishopAttacks(a, ends) & bishopAttacks(b, ends);
+					LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | ends;
+				}
+			}
+		}
+	}
+
+	private Magics() {}
+
+	/*
+	----------------------------
+	Lookups
+	----------------------------
+	 */
+
+	/*
+	Finds the squares attacked by a rook, including the first piece of either color along each line
+	@param square - the square of the rook
+	@param occupied - the occupancy of the whole board
+	@return - the attacked squares
+	 */
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_ATTACKS[square][(int)(((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	/*
+	Same as rookAttacks; however, along the diagonals
+	 */
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_ATTACKS[square][
+				(int)(((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	public static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	/*
+	Returns the squares strictly between the two squares if they share a line, and nothing otherwise
+	 */
+	public static long between(int a, int b) { return BETWEEN[a][b]; }
+
+	/*
+	Returns every square of the line through the two squares, edge to edge, or nothing if they don't share a line
+	 */
+	public static long line(int a, int b) { return LINE[a][b]; }
+
+	/*
+	----------------------------
+	Table Generation
+	----------------------------
+	 */
+
+	/*
+	Determines the squares whose occupancy can change the attacks of a slider on the given square. The last square
+	of each line is left out, as a piece there never blocks anything further along.
+	 */
+	private static long relevantOccupancy(int square, boolean rook) {
+		long piece = Bitboards.bit(square);
+		long edges = ((Bitboards.RANK_1 | Bitboards.RANK_8) & ~(Bitboards.RANK_1 << (8 * Bitboards.rankOf(square))))
+				| ((Bitboards.FILE_A | Bitboards.FILE_H) & ~(Bitboards.FILE_A << Bitboards.fileOf(square)));
+		long attacks = rook ? Bitboards.rookAttacks(piece, -1L) : Bitboards.bishopAttacks(piece, -1L);
+		return attacks & ~edges;
+	}
+
+	/*
+	Builds the attack table for a square by walking every subset of the relevant occupancy and storing the attacks
+	found by the ray fills at the subset's magic index
+	 */
+	private static long[] fillTable(int square, boolean rook, long mask, long magic, int shift) {
+		long[] table = new long[ 1 << (64 - shift) ];
+		long piece = Bitboards.bit(square);
+		long subset = 0L;
+		do {
+			long attacks = rook ? Bitboards.rookAttacks(piece, ~subset) : Bitboards.bishopAttacks(piece, ~subset);
+			table[(int)((subset * magic) >>> shift)] = attacks;
+			subset = (subset - mask) & mask;	// next subset of the mask
+		} while (subset != 0);
+		return table;
+	}
+
+}
@@ -0,0 +1,44 @@
+package Game.Board;
+
+/*
+The encoding for the piece on a square of a mailbox board, a byte per square. An empty square is 0, otherwise
+the low three bits hold the piece type plus one and the fourth bit holds the color index. This keeps the state of
+the board as plain data, with none of the sprites or locations carried around by Game.Pieces.Piece.
+ */
+public final class Mailbox {
+
+	public static final byte EMPTY = 0;
+
+	private static final int TYPE_MASK = 0x7;
+	private static final int COLOR_SHIFT = 3;
+
+	// the points a piece of each type is worth when taken, indexed by piece type
+	private static final int[] POINTS = {1, 3, 3, 5, 9, 6};
+
+	private Mailbox() {}
+
+	/*
+	Encodes a piece
+	@param type - the piece type, as numbered by Bitboards
+	@param color - the color index of the piece
+	@return - the byte for a square holding the piece
+	 */
+	public static byte code(int type, int color) {
+		return (byte)((type + 1) | (color << COLOR_SHIFT));
+	}
+
+	/*
+	Returns the piece type of the code, or -1 for an empty square
+	 */
+	public static int type(byte code) { return (code & TYPE_MASK) - 1; }
+
+	public static int color(byte code) { return code >>> COLOR_SHIFT; }
+
+	public static char iden(byte code) { return Bitboards.iden(type(code)); }
+
+	/*
+	Returns the points a piece of the given type is worth
+	 */
+	public static int points(int type) { return POINTS[type]; }
+
+}
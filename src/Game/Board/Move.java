@@ -0,0 +1,120 @@
+package Game.Board;
+
+import java.awt.Point;
+
+/*
+Helpers for moves packed into a single int, so move lists can be plain int arrays.
+	bits 0 - 5:		the square being moved from
+	bits 6 - 11:	the square being moved to
+	bits 12 - 14:	the piece type being promoted to (0 if the move is not a promotion, as pawns can't be promoted to)
+	bits 15 - 18:	flags describing the move (CAPTURE, DOUBLE_PAWN, EN_PASSANT, CASTLE)
+ */
+public final class Move {
+
+	// the encoding for no move at all (a move from a square to itself is never valid)
+	public static final int NONE = 0;
+
+	// more than the number of moves available in any legal position
+	public static final int MAX_MOVES = 256;
+
+	// flags
+	public static final int CAPTURE = 1 << 15;
+	public static final int DOUBLE_PAWN = 1 << 16;
+	public static final int EN_PASSANT = 1 << 17;
+	public static final int CASTLE = 1 << 18;
+
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int TO_SHIFT = 6;
+	private static final int PROMOTION_SHIFT = 12;
+	private static final int PROMOTION_MASK = 0x7;
+
+	private static final char[] PROMOTION_CHARS = {' ', 'n', 'b', 'r', 'q', ' '};
+
+	private Move() {}
+
+	/*
+	----------------------------
+	Encoding
+	----------------------------
+	 */
+
+	public static int encode(int from, int to) {
+		return from | (to << TO_SHIFT);
+	}
+
+	/*
+	Packs a move into an int
+	@param from - the square being moved from
+	@param to - the square being moved to
+	@param promotion - the piece type to promote to, or 0 for no promotion
+	@param flags - any of the flags for the move or'd together
+	@return - the encoded move
+	 */
+	public static int encode(int from, int to, int promotion, int flags) {
+		return from | (to << TO_SHIFT) | (promotion << PROMOTION_SHIFT) | flags;
+	}
+
+	public static int from(int move) { return move & SQUARE_MASK; }
+
+	public static int to(int move) { return (move >>> TO_SHIFT) & SQUARE_MASK; }
+
+	public static int promotion(int move) { return (move >>> PROMOTION_SHIFT) & PROMOTION_MASK; }
+
+	public static boolean isPromotion(int move) { return promotion(move) != 0; }
+
+	public static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+
+	public static boolean isDoublePawn(int move) { return (move & DOUBLE_PAWN) != 0; }
+
+	public static boolean isEnPassant(int move) { return (move & EN_PASSANT) != 0; }
+
+	public static boolean isCastle(int move) { return (move & CASTLE) != 0; }
+
+	/*
+	----------------------------
+	Adapters
+	----------------------------
+	 */
+
+	/*
+	Encodes a move between two board locations, as used by the GUI. No flags are set, BoardManager works
+	those out from the board when the move is performed.
+	 */
+	public static int encode(Point from, Point to) {
+		return encode(Bitboards.square(from.x, from.y), Bitboards.square(to.x, to.y));
+	}
+
+	public static Point fromPoint(int move) {
+		return new Point(Bitboards.fileOf(from(move)), Bitboards.rankOf(from(move)));
+	}
+
+	public static Point toPoint(int move) {
+		return new Point(Bitboards.fileOf(to(move)), Bitboards.rankOf(to(move)));
+	}
+
+	/*
+	Returns the name of a square in algebraic notation, i.e. "e4"
+	 */
+	public static String squareName(int square) {
+		return "" + (char)('a' + Bitboards.fileOf(square)) + (char)('1' + Bitboards.rankOf(square));
+	}
+
+	/*
+	Returns the move in coordinate notation, i.e. "e2e4" or "e7e8q"
+	 */
+	public static String toString(int move) {
+		String str = squareName(from(move)) + squareName(to(move));
+		return isPromotion(move) ? str + PROMOTION_CHARS[promotion(move)] : str;
+	}
+
+	public static String toString(int[] moves, int count) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(toString(moves[i]));
+		}
+		return sb.append("]").toString();
+	}
+
+}
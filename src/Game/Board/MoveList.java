@@ -0,0 +1,60 @@
+package Game.Board;
+
+/*
+A reusable buffer of encoded moves. Move generation writes straight into the buffer instead of allocating a new
+list, so a search can keep one MoveList per ply and reuse it for every position it visits at that ply.
+ */
+public final class MoveList {
+
+	// the encoded moves, only the first size() entries are meaningful
+	final public int[] moves;
+
+	private int size = 0;
+
+	public MoveList() {
+		this(Move.MAX_MOVES);
+	}
+
+	public MoveList(int capacity) {
+		moves = new int[ capacity ];
+	}
+
+	/*
+	Creates one list for each ply of a search
+	@param plies - the number of plies to create lists for
+	@return - an array holding a new list for each ply
+	 */
+	public static MoveList[] forPlies(int plies) {
+		MoveList[] lists = new MoveList[ plies ];
+		for (int i = 0; i < plies; i++)
+			lists[i] = new MoveList();
+		return lists;
+	}
+
+	public int size() { return size; }
+
+	public boolean isEmpty() { return size == 0; }
+
+	/*
+	Sets the number of moves held, used after writing to the moves array directly
+	 */
+	public void setSize(int size) { this.size = size; }
+
+	public void clear() { size = 0; }
+
+	public int get(int index) { return moves[index]; }
+
+	public void add(int move) { moves[size++] = move; }
+
+	public void swap(int i, int j) {
+		int temp = moves[i];
+		moves[i] = moves[j];
+		moves[j] = temp;
+	}
+
+	@Override
+	public String toString() {
+		return Move.toString(moves, size);
+	}
+
+}
@@ -0,0 +1,104 @@
+package Game.Board;
+
+/*
+The worth of each piece on each square in centipawns, the piece's value plus a bonus (or penalty) for where it
+stands: knights and bishops towards the centre, pawns further up the board, rooks on the seventh rank and the king
+tucked behind its pawns. The tables are written from light's side with the eighth rank first, and are flipped for
+dark, so a score is the same for either color in the mirrored position.
+ */
+public final class PieceSquareTables {
+
+	// the value of each piece type in centipawns, the king is never taken so it is worth nothing
+	private static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+
+	private static final int[][] TABLES = {
+		{	// pawn
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 50,  50,  50,  50,  50,  50,  50,  50,
+			 10,  10,  20,  30,  30,  20,  10,  10,
+			  5,   5,  10,  25,  25,  10,   5,   5,
+			  0,   0,   0,  20,  20,   0,   0,   0,
+			  5,  -5, -10,   0,   0, -10,  -5,   5,
+			  5,  10,  10, -20, -20,  10,  10,   5,
+			  0,   0,   0,   0,   0,   0,   0,   0
+		},
+		{	// knight
+			-50, -40, -30, -30, -30, -30, -40, -50,
+			-40, -20,   0,   0,   0,   0, -20, -40,
+			-30,   0,  10,  15,  15,  10,   0, -30,
+			-30,   5,  15,  20,  20,  15,   5, -30,
+			-30,   0,  15,  20,  20,  15,   0, -30,
+			-30,   5,  10,  15,  15,  10,   5, -30,
+			-40, -20,   0,   5,   5,   0, -20, -40,
+			-50, -40, -30, -30, -30, -30, -40, -50
+		},
+		{	// bishop
+			-20, -10, -10, -10, -10, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,  10,  10,   5,   0, -10,
+			-10,   5,   5,  10,  10,   5,   5, -10,
+			-10,   0,  10,  10,  10,  10,   0, -10,
+			-10,  10,  10,  10,  10,  10,  10, -10,
+			-10,   5,   0,   0,   0,   0,   5, -10,
+			-20, -10, -10, -10, -10, -10, -10, -20
+		},
+		{	// rook
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			  5,  10,  10,  10,  10,  10,  10,   5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			 -5,   0,   0,   0,   0,   0,   0,  -5,
+			  0,   0,   0,   5,   5,   0,   0,   0
+		},
+		{	// queen
+			-20, -10, -10,  -5,  -5, -10, -10, -20,
+			-10,   0,   0,   0,   0,   0,   0, -10,
+			-10,   0,   5,   5,   5,   5,   0, -10,
+			 -5,   0,   5,   5,   5,   5,   0,  -5,
+			  0,   0,   5,   5,   5,   5,   0,  -5,
+			-10,   5,   5,   5,   5,   5,   0, -10,
+			-10,   0,   5,   0,   0,   0,   0, -10,
+			-20, -10, -10,  -5,  -5, -10, -10, -20
+		},
+		{	// king
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-20, -30, -30, -40, -40, -30, -30, -20,
+			-10, -20, -20, -20, -20, -20, -20, -10,
+			 20,  20,   0,   0,   0,   0,  20,  20,
+			 20,  30,  10,   0,   0,  10,  30,  20
+		}
+	};
+
+	// the tables looked up by color, type and square, with the values added in
+	private static final int[][][] SCORES = new int[ 2 ][ Bitboards.PIECE_TYPES ][ 64 ];
+	static {
+		for (int type = 0; type < Bitboards.PIECE_TYPES; type++) {
+			for (int square = 0; square < 64; square++) {
+				int x = Bitboards.fileOf(square), y = Bitboards.rankOf(square);
+				SCORES[Bitboards.LIGHT][type][square] = VALUES[type] + TABLES[type][(7 - y) * 8 + x];
+				SCORES[Bitboards.DARK][type][square] = VALUES[type] + TABLES[type][y * 8 + x];
+			}
+		}
+	}
+
+	private PieceSquareTables() {}
+
+	/*
+	Returns what a piece is worth on a square, in centipawns
+	@param color - the color index of the piece
+	@param type - the piece type, as numbered by Bitboards
+	@param square - the square the piece is on
+	 */
+	public static int score(int color, int type, int square) { return SCORES[color][type][square]; }
+
+	/*
+	Returns the value of a piece type in centipawns, wherever it stands
+	 */
+	public static int value(int type) { return VALUES[type]; }
+
+}
@@ -0,0 +1,128 @@
+package Game.Board;
+
+import Game.Pieces.PieceColor;
+
+import java.util.Arrays;
+
+/*
+An immutable snapshot of a position. Creating one copies the 64 bytes of the board and a handful of ints, and
+the snapshot shares nothing with the board it came from, so it stays the same however the board changes
+afterwards. This makes it safe to hand to the GUI, loggers or other threads.
+ */
+public final class Position {
+
+	// the piece on each square, encoded by Mailbox
+	private final byte[] squares;
+
+	private final int sideToMove;
+	private final int castling;
+	private final int enPassant;
+	private final long hash;
+	private final int lightPoints;
+	private final int darkPoints;
+	private final int halfmoveClock;
+	private final int fullmoveNumber;
+
+	/*
+	Creates a snapshot of a position
+	@param squares - the piece on each square encoded by Mailbox, which is copied
+	@param sideToMove - the color index of the side to move
+	@param castling - the castling flags still allowed
+	@param enPassant - the square a pawn can move to when taking en passant, or -1 if there is none
+	@param hash - the Zobrist key of the position
+	@param lightPoints, darkPoints - the points each color has taken
+	 */
+	public Position(byte[] squares, int sideToMove, int castling, int enPassant, long hash,
+					int lightPoints, int darkPoints) {
+		this(squares, sideToMove, castling, enPassant, hash, lightPoints, darkPoints, 0, 1);
+	}
+
+	/*
+	Same as above; however, the move counters are given as well
+	@param halfmoveClock - the number of moves since the last capture or pawn move
+	@param fullmoveNumber - the number of the move being played, starting at 1 and going up after dark moves
+	 */
+	public Position(byte[] squares, int sideToMove, int castling, int enPassant, long hash,
+					int lightPoints, int darkPoints, int halfmoveClock, int fullmoveNumber) {
+		this.squares = Arrays.copyOf(squares, 64);
+		this.sideToMove = sideToMove;
+		this.castling = castling;
+		this.enPassant = enPassant;
+		this.hash = hash;
+		this.lightPoints = lightPoints;
+		this.darkPoints = darkPoints;
+		this.halfmoveClock = halfmoveClock;
+		this.fullmoveNumber = fullmoveNumber;
+	}
+
+	/*
+	Returns the piece on the square encoded by Mailbox, Mailbox.EMPTY if there is none
+	 */
+	public byte pieceAt(int square) { return squares[square]; }
+
+	public byte pieceAt(int x, int y) { return squares[Bitboards.square(x, y)]; }
+
+	/*
+	Returns a copy of the board, the piece on each square encoded by Mailbox
+	 */
+	public byte[] getSquares() { return squares.clone(); }
+
+	public PieceColor getSideToMove() { return Bitboards.color(sideToMove); }
+
+	public int getCastlingRights() { return castling; }
+
+	/*
+	Returns the square a pawn can move to when taking en passant, or -1 if there is none
+	 */
+	public int getEnPassantSquare() { return enPassant; }
+
+	public long getHash() { return hash; }
+
+	public int getLightPoints() { return lightPoints; }
+
+	public int getDarkPoints() { return darkPoints; }
+
+	/*
+	Returns the number of moves since the last capture or pawn move
+	 */
+	public int getHalfmoveClock() { return halfmoveClock; }
+
+	public int getFullmoveNumber() { return fullmoveNumber; }
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Position))
+			return false;
+		Position other = (Position)o;
+		return hash == other.hash && sideToMove == other.sideToMove && castling == other.castling
+				&& enPassant == other.enPassant && Arrays.equals(squares, other.squares);
+	}
+
+	@Override
+	public int hashCode() {
+		return (int)(hash ^ (hash >>> 32));
+	}
+
+	/*
+	Returns the board drawn with a row per rank, the eighth rank first, light pieces in upper case and dark pieces
+	in lower case
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int y = 7; y >= 0; y--) {
+			for (int x = 0; x < 8; x++) {
+				byte p = pieceAt(x, y);
+				if (p == Mailbox.EMPTY)
+					sb.append('.');
+				else if (Mailbox.color(p) == Bitboards.LIGHT)
+					sb.append(Mailbox.iden(p));
+				else
+					sb.append(Character.toLowerCase(Mailbox.iden(p)));
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+}
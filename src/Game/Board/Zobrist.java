@@ -0,0 +1,46 @@
+package Game.Board;
+
+import java.util.Random;
+
+/*
+Random keys for Zobrist hashing. The key of a position is the xor of the keys of everything in it (each piece on
+its square, the side to move, the castling rights and the en passant file), so a move only has to xor in and out
+the keys of what it changes. The keys come from a fixed seed, so the key of a position is the same on every run.
+ */
+public final class Zobrist {
+
+	private static final long[][][] PIECES = new long[ 2 ][ Bitboards.PIECE_TYPES ][ 64 ];
+	private static final long[] CASTLING = new long[ 16 ];
+	private static final long[] EN_PASSANT = new long[ 8 ];
+	private static final long DARK_TO_MOVE;
+
+	static {
+		Random random = new Random(0x5EED_C4E55L);
+		for (int color = 0; color < 2; color++)
+			for (int type = 0; type < Bitboards.PIECE_TYPES; type++)
+				for (int square = 0; square < 64; square++)
+					PIECES[color][type][square] = random.nextLong();
+		for (int rights = 0; rights < 16; rights++)
+			CASTLING[rights] = random.nextLong();
+		for (int file = 0; file < 8; file++)
+			EN_PASSANT[file] = random.nextLong();
+		DARK_TO_MOVE = random.nextLong();
+	}
+
+	private Zobrist() {}
+
+	public static long piece(int color, int type, int square) { return PIECES[color][type][square]; }
+
+	/*
+	Returns the key for a combination of castling flags
+	 */
+	public static long castling(int rights) { return CASTLING[rights]; }
+
+	public static long enPassant(int file) { return EN_PASSANT[file]; }
+
+	/*
+	Returns the key xor'd in while dark is to move
+	 */
+	public static long darkToMove() { return DARK_TO_MOVE; }
+
+}
@@ -10,12 +10,31 @@ import java.util.logging.*;
 
 import Func.Function;
 import Func.Tuple;
+import Game.Board.Bitboards;
+import Game.Board.Leapers;
+import Game.Board.Magics;
+import Game.Board.Mailbox;
+import Game.Board.Move;
+import Game.Board.MoveList;
+import Game.Board.PieceSquareTables;
+import Game.Board.Position;
+import Game.Board.Zobrist;
 
 import javax.swing.*;
 
 /*
 (a) Maintains the state of the board
 (b) Handles logic of moving pieces
+
+Threading: a BoardManager is not thread safe, and is meant to be confined to the one thread using it. Every query
+keeps its scratch state in locals except two: countLegalMoves keeps a pawn's moves in the pawnMoveScratch field, and
+staticExchange keeps its running gains in the exchangeGains field. Neither runs a callback or anything which could
+reach it again, so neither can be nested on one thread and each field is never in use twice at once. Apart from that
+the only state kept between calls is the position itself and the undo stack, so a board is reentrant within its
+thread (a query may make and unmake moves on the same board while another is in progress, as testMove's callback
+does). The shared tables in Game.Board are immutable once their classes have loaded, so any number of boards can be
+used on different threads at once. To search in parallel, give each worker its own board with the copy constructor
+or from a Position snapshot, rather than sharing one. Game.ThreadingCheck checks this holds.
  */
 public class BoardManager {
 
@@ -25,41 +44,98 @@ public class BoardManager {
 	----------------------------
 	 */
 
-	// Search funcs which look for pieces of a specific color according to move patterns
-	private final SearchFunc straightPieces =
-			new SearchFunc(new char[]{'R', 'Q'}, true, PieceColor.light);
-
-	private final SearchFunc diagPieces =
-			new SearchFunc(new char[]{'B', 'Q'}, true, PieceColor.light);
-
-	private final SearchFunc knightPiece =
-			new SearchFunc(new char[]{'N'}, false, PieceColor.light);
-
-	private final SearchFunc pawnPiece =
-			new SearchFunc(new char[]{'P'}, false, PieceColor.light);
+	// the piece on each square, encoded by Mailbox, this is the board itself and holds no Piece objects
+	private final byte[] squares = new byte[ 64 ];
 
-	private final SearchFunc kingPiece =
-			new SearchFunc(new char[]{'K'}, false, PieceColor.light);
+	// bitboards mirroring the squares, one per color and piece type along with the occupancy of each color
+	// these are kept in sync with the squares by setPiece, and should never be modified anywhere else
+	private final long[][] pieceBoards = new long[ 2 ][ Bitboards.PIECE_TYPES ];
+	private final long[] colorBoards = new long[ 2 ];
+	private long occupied = 0L;
 
-	// a matrix to track the board
-	private Piece[][] board = new Piece[ 8 ][ 8 ];
+	// attack maps, also kept in sync by setPiece: the squares attacked by the piece on each square, the number of
+	// pieces of each color attacking each square, and the squares attacked by each color
+	private final long[] pieceAttacks = new long[ 64 ];
+	private final byte[][] attackCounts = new byte[ 2 ][ 64 ];
+	private final long[] attackMaps = new long[ 2 ];
 
 	// the point trackers
 	private int lightPoints = 0;
 	private int darkPoints = 0;
 
-	// variable accessed within Inner Class (in implementation of func), so added as field for that purpose
-	private boolean isLegal = false;
-
-	// keeps track of whether the last move was a double forward by a pawn, along with the result location
-	private Point prevMoveDoublePawn = null;
-
-	// trackers to be used to keep track of king locations
-	// should not be used to illegally modify the king information
-	private King lightKing;
-	private King darkKing;
+	// keeps track of whether the last move was a double forward by a pawn, along with the result square (-1 if not)
+	private int prevMoveDoublePawn = -1;
+
+	// the color index of the side whose turn it is
+	private int sideToMove = Bitboards.LIGHT;
+
+	// the castling moves which are still allowed, as a combination of the castling flags
+	private int castling = LIGHT_KINGSIDE | LIGHT_QUEENSIDE | DARK_KINGSIDE | DARK_QUEENSIDE;
+
+	// the number of moves since the last capture or pawn move, and the number of the move being played
+	private int halfmoveClock = 0;
+	private int fullmoveNumber = 1;
+
+	// the Zobrist key of the position, the pieces are kept up to date by setPiece and the rest by applyMove
+	private long hash = 0L;
+
+	// the points of the pieces each color has on the board, and what they are worth on their squares in centipawns
+	// (see PieceSquareTables), indexed by color and kept up to date by setPiece
+	private final int[] material = new int[ 2 ];
+	private final int[] pieceSquareScores = new int[ 2 ];
+
+	// scratch space for the moves of a single pawn while counting legal moves, so counting never allocates
+	private final int[] pawnMoveScratch = new int[ 16 ];
+
+	// scratch space for the running gains of staticExchange, one per capture in the exchange
+	private final int[] exchangeGains = new int[ 32 ];
+
+	// the light colored squares of the board (a1 is dark)
+	private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+	// the kinds of moves to generate
+	public static final int GEN_CAPTURES = 1;
+	public static final int GEN_QUIETS = 2;
+	public static final int GEN_ALL = GEN_CAPTURES | GEN_QUIETS;
+
+	// castling flags
+	public static final int LIGHT_KINGSIDE = 1;
+	public static final int LIGHT_QUEENSIDE = 2;
+	public static final int DARK_KINGSIDE = 4;
+	public static final int DARK_QUEENSIDE = 8;
+
+	// the castling rights kept when a piece moves from or to each square, so moving a king or rook
+	// (or taking a rook) gives up the castling it was needed for
+	private static final int[] CASTLING_MASKS = new int[ 64 ];
+	static {
+		Arrays.fill(CASTLING_MASKS, LIGHT_KINGSIDE | LIGHT_QUEENSIDE | DARK_KINGSIDE | DARK_QUEENSIDE);
+		CASTLING_MASKS[0] &= ~LIGHT_QUEENSIDE;
+		CASTLING_MASKS[4] &= ~(LIGHT_KINGSIDE | LIGHT_QUEENSIDE);
+		CASTLING_MASKS[7] &= ~LIGHT_KINGSIDE;
+		CASTLING_MASKS[56] &= ~DARK_QUEENSIDE;
+		CASTLING_MASKS[60] &= ~(DARK_KINGSIDE | DARK_QUEENSIDE);
+		CASTLING_MASKS[63] &= ~DARK_KINGSIDE;
+	}
 
-	private static final int totalPoints = 45;
+	/*
+	The undo stack used by makeMove and unmakeMove. An entry is spread over the arrays at the same index, and holds
+	everything about the position which can't be worked out from the move itself.
+	 */
+	private static final int UNDO_CAPACITY = 1024;
+	private final int[] undoMoves = new int[ UNDO_CAPACITY ];
+	private final byte[] undoCaptured = new byte[ UNDO_CAPACITY ];
+	private final int[] undoDoublePawn = new int[ UNDO_CAPACITY ];
+	private final int[] undoCastling = new int[ UNDO_CAPACITY ];
+	private final int[] undoLightPoints = new int[ UNDO_CAPACITY ];
+	private final int[] undoDarkPoints = new int[ UNDO_CAPACITY ];
+	private final long[] undoHashes = new long[ UNDO_CAPACITY ];
+	private final int[] undoHalfmoveClocks = new int[ UNDO_CAPACITY ];
+	private int undoCount = 0;
+
+	// the keys of the positions reached before this one, oldest first, for spotting repetitions. Performed moves
+	// which can't be undone clear it after a capture or pawn move, as no earlier position can come up again.
+	private long[] history = new long[ 256 ];
+	private int historyCount = 0;
 
 	// logging fields
 	private static final Logger logger = Logger.getLogger("BoardManager");
@@ -73,6 +149,79 @@ public class BoardManager {
 
 	public BoardManager() {
 		generatePieces();
+		hash ^= Zobrist.castling(castling);
+	}
+
+	/*
+	Creates a board which is a copy of another, including its undo stack, so that each thread can work on its own
+	copy. The copy shares nothing with the original.
+	@param other - the board to copy, which must not be changed by another thread while it is being copied
+	 */
+	public BoardManager(BoardManager other) {
+		System.arraycopy(other.squares, 0, squares, 0, 64);
+		for (int color = 0; color < 2; color++)
+			System.arraycopy(other.pieceBoards[color], 0, pieceBoards[color], 0, Bitboards.PIECE_TYPES);
+		System.arraycopy(other.colorBoards, 0, colorBoards, 0, 2);
+		occupied = other.occupied;
+		System.arraycopy(other.pieceAttacks, 0, pieceAttacks, 0, 64);
+		for (int color = 0; color < 2; color++)
+			System.arraycopy(other.attackCounts[color], 0, attackCounts[color], 0, 64);
+		System.arraycopy(other.attackMaps, 0, attackMaps, 0, 2);
+		lightPoints = other.lightPoints;
+		darkPoints = other.darkPoints;
+		prevMoveDoublePawn = other.prevMoveDoublePawn;
+		sideToMove = other.sideToMove;
+		castling = other.castling;
+		hash = other.hash;
+		System.arraycopy(other.material, 0, material, 0, 2);
+		System.arraycopy(other.pieceSquareScores, 0, pieceSquareScores, 0, 2);
+		halfmoveClock = other.halfmoveClock;
+		fullmoveNumber = other.fullmoveNumber;
+
+		undoCount = other.undoCount;
+		System.arraycopy(other.undoMoves, 0, undoMoves, 0, undoCount);
+		System.arraycopy(other.undoCaptured, 0, undoCaptured, 0, undoCount);
+		System.arraycopy(other.undoDoublePawn, 0, undoDoublePawn, 0, undoCount);
+		System.arraycopy(other.undoCastling, 0, undoCastling, 0, undoCount);
+		System.arraycopy(other.undoLightPoints, 0, undoLightPoints, 0, undoCount);
+		System.arraycopy(other.undoDarkPoints, 0, undoDarkPoints, 0, undoCount);
+		System.arraycopy(other.undoHashes, 0, undoHashes, 0, undoCount);
+		System.arraycopy(other.undoHalfmoveClocks, 0, undoHalfmoveClocks, 0, undoCount);
+		history = Arrays.copyOf(other.history, other.history.length);
+		historyCount = other.historyCount;
+	}
+
+	/*
+	Creates a board set up in the given position. The board has no moves to undo.
+	@param position - the position to set up
+	 */
+	public BoardManager(Position position) {
+		for (int square = 0; square < 64; square++)
+			setPiece(square, position.pieceAt(square));
+		lightPoints = position.getLightPoints();
+		darkPoints = position.getDarkPoints();
+		sideToMove = Bitboards.colorIndex(position.getSideToMove());
+		castling = position.getCastlingRights();
+		halfmoveClock = position.getHalfmoveClock();
+		fullmoveNumber = position.getFullmoveNumber();
+
+		// the en passant square is behind the pawn which moved two
+		int enPassant = position.getEnPassantSquare();
+		if (enPassant >= 0)
+			prevMoveDoublePawn = (Bitboards.rankOf(enPassant) == 2) ? enPassant + 8 : enPassant - 8;
+
+		hash ^= Zobrist.castling(castling) ^ enPassantKey();
+		if (sideToMove == Bitboards.DARK)
+			hash ^= Zobrist.darkToMove();
+	}
+
+	/*
+	Creates a board set up in the position described by a FEN string
+	@param fen - the position in Forsyth-Edwards Notation
+	@throws InvalidFenException - if the string isn't a valid FEN for a position with one king of each color
+	 */
+	public BoardManager(String fen) {
+		this(Fen.parse(fen));
 	}
 
 	/*
@@ -83,35 +232,17 @@ public class BoardManager {
 		if (LOGGING)
 			logger.config("Entering generatePieces");
 
-		// Generate the pawns for both colors
-		int lightY = 1;
-		int darkY = 6;
+		int[] backRow = {Bitboards.ROOK, Bitboards.KNIGHT, Bitboards.BISHOP, Bitboards.QUEEN,
+				Bitboards.KING, Bitboards.BISHOP, Bitboards.KNIGHT, Bitboards.ROOK};
 		for (int x = 0; x < 8; x++) {
-			setPiece(new Pawn(PieceColor.dark, x, darkY), x, darkY);
-			setPiece(new Pawn(PieceColor.light, x, lightY), x, lightY);
-		}
-
-		// generate the pieces for the light color
-		setPiece(new Rook(PieceColor.light, 0, 0), 0, 0);
-		setPiece(new Knight(PieceColor.light, 1, 0), 1, 0);
-		setPiece(new Bishop(PieceColor.light, 2, 0), 2, 0);
-		setPiece(new Queen(PieceColor.light, 3, 0), 3, 0);
-		lightKing = new King(PieceColor.light, 4, 0);
-		setPiece(lightKing, 4, 0);
-		setPiece(new Bishop(PieceColor.light, 5, 0), 5, 0);
-		setPiece(new Knight(PieceColor.light, 6, 0), 6, 0);
-		setPiece(new Rook(PieceColor.light, 7, 0), 7, 0);
+			// Generate the pawns for both colors
+			setPiece(Bitboards.square(x, 1), Mailbox.code(Bitboards.PAWN, Bitboards.LIGHT));
+			setPiece(Bitboards.square(x, 6), Mailbox.code(Bitboards.PAWN, Bitboards.DARK));
 
-		// generates the pieces for the dark color
-		setPiece(new Rook(PieceColor.dark, 0, 7), 0, 7);
-		setPiece(new Knight(PieceColor.dark, 1, 7), 1, 7);
-		setPiece(new Bishop(PieceColor.dark, 2, 7), 2, 7);
-		setPiece(new Queen(PieceColor.dark, 3, 7), 3, 7);
-		darkKing = new King(PieceColor.dark, 4, 7);
-		setPiece(darkKing, 4, 7);
-		setPiece(new Bishop(PieceColor.dark, 5, 7), 5, 7);
-		setPiece(new Knight(PieceColor.dark, 6, 7), 6, 7);
-		setPiece(new Rook(PieceColor.dark, 7, 7), 7, 7);
+			// generate the pieces behind them
+			setPiece(Bitboards.square(x, 0), Mailbox.code(backRow[x], Bitboards.LIGHT));
+			setPiece(Bitboards.square(x, 7), Mailbox.code(backRow[x], Bitboards.DARK));
+		}
 
 	}
 
@@ -131,13 +262,35 @@ public class BoardManager {
 		StringBuilder sb = new StringBuilder();
 		for (int x = 0; x < 8; x++) {
 			for (int y = 0; y < 8; y++) {
-				if (at(x, y) != null)
-					sb.append(" " + at(x, y).iden());
+				if (at(x, y) != Mailbox.EMPTY)
+					sb.append(" " + Mailbox.iden(at(x, y)));
 			}
 		}
 		return sb.toString();
 	}
 
+	/*
+	Returns the color whose turn it is to move
+	 */
+	public PieceColor getSideToMove() {
+		return Bitboards.color(sideToMove);
+	}
+
+	/*
+	Returns the Zobrist key of the current position. Two positions with the same pieces on the same squares, the
+	same side to move, the same castling rights and the same en passant capture available have the same key.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/*
+	Returns the castling moves still allowed, as a combination of the castling flags
+	 */
+	public int getCastlingRights() {
+		return castling;
+	}
+
 	/*
 	Returns the number of points the light color has
 	 */
@@ -152,23 +305,98 @@ public class BoardManager {
 		return darkPoints;
 	}
 
+	/*
+	Returns the points of the light pieces still on the board, counting promoted pieces at their new worth
+	 */
 	public int remainingLightPoints() {
-		return totalPoints - getDarkPoints();
+		return material[Bitboards.LIGHT];
 	}
 
 	public int remainingDarkPoints() {
-		return totalPoints - getLightPoints();
+		return material[Bitboards.DARK];
+	}
+
+	/*
+	Returns the points of the pieces the given color has on the board
+	 */
+	public int getMaterial(PieceColor color) {
+		return material[Bitboards.colorIndex(color)];
+	}
+
+	/*
+	Returns what the pieces of the given color are worth on their squares in centipawns, as scored by
+	PieceSquareTables. The difference between the two colors is a cheap evaluation of the position.
+	 */
+	public int getPieceSquareScore(PieceColor color) {
+		return pieceSquareScores[Bitboards.colorIndex(color)];
 	}
 
 	public ConstPiece getPiece(int x, int y) {
-		Piece p = at(x, y);
-		return ( p == null) ? null : new ConstPiece(p);
+		byte p = at(x, y);
+		return ( p == Mailbox.EMPTY) ? null : new ConstPiece(p, x, y);
 	}
 
 	public ConstPiece getPiece(Point p) {
 		return getPiece(p.x, p.y);
 	}
 
+	public ConstPiece getPiece(int square) {
+		return getPiece(Bitboards.fileOf(square), Bitboards.rankOf(square));
+	}
+
+	/*
+	Returns the type of the piece on the given square, as numbered by Bitboards, or -1 if the square is empty
+	 */
+	public int getPieceType(int square) {
+		return Mailbox.type(squares[square]);
+	}
+
+	/*
+	Returns the color index of the piece on the given square, as numbered by Bitboards, or -1 if the square is empty
+	 */
+	public int getPieceColor(int square) {
+		return (squares[square] == Mailbox.EMPTY) ? -1 : Mailbox.color(squares[square]);
+	}
+
+	/*
+	Returns a copy of the board, the piece on each square encoded by Mailbox
+	 */
+	public byte[] getSquares() {
+		return squares.clone();
+	}
+
+	/*
+	Takes an immutable snapshot of the current position, which later moves don't change
+	 */
+	public Position getPosition() {
+		int enPassant = -1;
+		if (prevMoveDoublePawn >= 0)
+			enPassant = (Bitboards.rankOf(prevMoveDoublePawn) == 3) ? prevMoveDoublePawn - 8 : prevMoveDoublePawn + 8;
+		return new Position(squares, sideToMove, castling, enPassant, hash, lightPoints, darkPoints,
+				halfmoveClock, fullmoveNumber);
+	}
+
+	/*
+	Returns the current position in Forsyth-Edwards Notation
+	 */
+	public String toFen() {
+		return Fen.format(getPosition());
+	}
+
+	/*
+	Returns the number of moves since the last capture or pawn move
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	/*
+	Returns the number of the move being played, starting at 1 and going up after each move by dark
+	 */
+	public int getFullmoveNumber() {
+		return fullmoveNumber;
+	}
+
 	/*
 	Determines if a given point is valid
 	@parameters:
@@ -176,34 +404,120 @@ public class BoardManager {
 	@return: true if the point lies on the board, and false otherwise
 	 */
 	public static boolean isValid(Point p) {
-		return !(p == null || p.x < 0 || p.x > 7 || p.y < 0 || p.y > 7);
+		return p != null && isValid(p.x, p.y);
 	}
 
-	// Overload version of isValid with a point
-	public static boolean isValid(int x, int y) { return isValid(new Point(x, y)); }
+	// Overload version of isValid with coordinates
+	public static boolean isValid(int x, int y) {
+		return x >= 0 && x <= 7 && y >= 0 && y <= 7;
+	}
 
 	/*
-	Moves the piece to the given coordinates, setting old position to null. If null is passed, sets location
-	to null.
-	@parameters:
-		p: The piece to move
-		(x, y): The point to move the piece to
+	Moves the piece on one square to another, leaving the first square empty. Whatever was on the square moved to
+	is replaced.
+	@param from - the square of the piece to move
+	@param to - the square to move it to
 	 */
-	private void setLocation(Piece p, int x, int y) {
-		if (p != null) {
-			setPiece(null, p.getX(), p.getY());      // sets old location to null
-			p.setLocation(x, y);                        // sets the new location of the piece
+	private void movePiece(int from, int to) {
+		byte p = squares[from];
+		setPiece(from, Mailbox.EMPTY);
+		setPiece(to, p);
+	}
+
+	/*
+	Sets the piece on the square, keeping the bitboards, attack maps, key and scores in sync
+	Note: This is private for a reason, as nothing else may change the squares without the mirrors following
+	 */
+	private void setPiece(int square, byte p) {
+		long bit = Bitboards.bit(square);
+		byte old = squares[square];
+		if (old != Mailbox.EMPTY) {		// clear the bits of the piece being replaced
+			int color = Mailbox.color(old);
+			int type = Mailbox.type(old);
+			pieceBoards[color][type] &= ~bit;
+			colorBoards[color] &= ~bit;
+			occupied &= ~bit;
+			hash ^= Zobrist.piece(color, type, square);
+			material[color] -= Mailbox.points(type);
+			pieceSquareScores[color] -= PieceSquareTables.score(color, type, square);
+			setAttacks(square, color, 0L);
+		}
+
+		squares[square] = p;
+
+		if (p != Mailbox.EMPTY) {
+			int color = Mailbox.color(p);
+			int type = Mailbox.type(p);
+			pieceBoards[color][type] |= bit;
+			colorBoards[color] |= bit;
+			occupied |= bit;
+			hash ^= Zobrist.piece(color, type, square);
+			material[color] += Mailbox.points(type);
+			pieceSquareScores[color] += PieceSquareTables.score(color, type, square);
+			setAttacks(square, color, attacksOf(type, color, square));
+		}
+
+		// sliders whose lines run through the square now see further or stop short
+		long sliders = (Magics.rookAttacks(square, occupied) & rookSliders())
+				| (Magics.bishopAttacks(square, occupied) & bishopSliders());
+		while (sliders != 0) {
+			int slider = Bitboards.first(sliders);
+			sliders &= sliders - 1;
+			byte piece = squares[slider];
+			setAttacks(slider, Mailbox.color(piece), attacksOf(Mailbox.type(piece), Mailbox.color(piece), slider));
+		}
+	}
+
+	private long rookSliders() {
+		return pieceBoards[Bitboards.LIGHT][Bitboards.ROOK] | pieceBoards[Bitboards.LIGHT][Bitboards.QUEEN]
+				| pieceBoards[Bitboards.DARK][Bitboards.ROOK] | pieceBoards[Bitboards.DARK][Bitboards.QUEEN];
+	}
+
+	private long bishopSliders() {
+		return pieceBoards[Bitboards.LIGHT][Bitboards.BISHOP] | pieceBoards[Bitboards.LIGHT][Bitboards.QUEEN]
+				| pieceBoards[Bitboards.DARK][Bitboards.BISHOP] | pieceBoards[Bitboards.DARK][Bitboards.QUEEN];
+	}
+
+	/*
+	Finds the squares attacked by a piece with the current occupancy
+	 */
+	private long attacksOf(int type, int color, int square) {
+		switch (type) {
+			case Bitboards.PAWN: return Leapers.pawnAttacks(color, square);
+			case Bitboards.KNIGHT: return Leapers.knightAttacks(square);
+			case Bitboards.BISHOP: return Magics.bishopAttacks(square, occupied);
+			case Bitboards.ROOK: return Magics.rookAttacks(square, occupied);
+			case Bitboards.QUEEN: return Magics.queenAttacks(square, occupied);
+			case Bitboards.KING: return Leapers.kingAttacks(square);
 		}
-		setPiece(p, x, y);								// sets the piece at the new location
+		return 0L;
 	}
 
 	/*
-	Sets the piece at the position
-	Note: This is private for a reason, very dangerous as it can de-sync piece
-	locations and their positions in the board so be careful with it
+	Replaces the attacks of the piece on a square, updating the counts and map of its color for only the squares
+	which changed
+	@param square - the square of the piece
+	@param color - the color index of the piece
+	@param attacks - the squares the piece now attacks, 0 if it is being removed
 	 */
-	private void setPiece(Piece p, int x, int y) {
-		board[x][y] = p;
+	private void setAttacks(int square, int color, long attacks) {
+		long changed = pieceAttacks[square] ^ attacks;
+		long lost = changed & pieceAttacks[square];
+		long gained = changed & attacks;
+		byte[] counts = attackCounts[color];
+		while (lost != 0) {
+			int target = Bitboards.first(lost);
+			lost &= lost - 1;
+			if (--counts[target] == 0)
+				attackMaps[color] &= ~Bitboards.bit(target);
+		}
+		while (gained != 0) {
+			int target = Bitboards.first(gained);
+			gained &= gained - 1;
+			if (counts[target]++ == 0)
+				attackMaps[color] |= Bitboards.bit(target);
+		}
+		pieceAttacks[square] = attacks;
 	}
 
 	/*
@@ -213,31 +527,25 @@ public class BoardManager {
 	@return - true if the piece at location is of the color specified, false if it is null or a diff. color
 	 */
 	public boolean colorMatches(Point location, PieceColor color) {
-		Piece p = at(location);
-		return p != null && p.colorMatches(color);
+		byte p = at(location);
+		return p != Mailbox.EMPTY && Mailbox.color(p) == Bitboards.colorIndex(color);
 	}
 
 	/*
-	Clones the board, and casts is back to Piece[][] so it can be passed to other functions without
-	the danger of being changed
-	 */
-	public Piece[][] cloneBoard() {
-		if (LOGGING)
-			logger.config("Entering cloneBoard");
-		return (Piece[][])board.clone();
-	}
-
-	/*
-	Finds the piece at the given location. If the point is null or invalid, null is returned.
+	Finds the piece at the given location. If the point is invalid, Mailbox.EMPTY is returned.
 	@param Point - the point to be searched for
-	@return - the piece at that point, null if no piece is found
+	@return - the piece at that point encoded by Mailbox, Mailbox.EMPTY if no piece is found
 	 */
-	private Piece at(Point p) { return at(p.x, p.y); }
+	private byte at(Point p) { return at(p.x, p.y); }
 
-	private Piece at(int x, int y) {
+	private byte at(int x, int y) {
 		if (!isValid(x, y))
-			return null;
-		return board[x][y];
+			return Mailbox.EMPTY;
+		return squares[Bitboards.square(x, y)];
+	}
+
+	private byte at(int square) {
+		return squares[square];
 	}
 
 	/*
@@ -246,19 +554,21 @@ public class BoardManager {
 	@return - the location of the king in the board
 	 */
 	public Point findKing(PieceColor color) {
-		return (color == PieceColor.light) ? lightKing.getPoint() : darkKing.getPoint();
+		int king = Bitboards.first(pieceBoards[Bitboards.colorIndex(color)][Bitboards.KING]);
+		return new Point(Bitboards.fileOf(king), Bitboards.rankOf(king));
 	}
 
 	/*
-	Determines if the given piece is at the starting row. Returns false if the piece passed is null
-	@param p - the piece to check
+	Determines if the piece at the given location is at its starting row. Returns false if the square is empty
+	@param p - the location of the piece to check
 	@return - true if the piece is at the starting row, false otherwise
 	 */
-	public boolean atStartingRow(Piece p) {
-		if (p == null)
+	public boolean atStartingRow(Point p) {
+		byte piece = at(p);
+		if (piece == Mailbox.EMPTY)
 			return false;
-		return ( (p.colorMatches(PieceColor.light) && p.getY() == 1) ||
-				(p.colorMatches(PieceColor.dark) && p.getY() == 6) );
+		return ( (Mailbox.color(piece) == Bitboards.LIGHT && p.y == 1) ||
+				(Mailbox.color(piece) == Bitboards.DARK && p.y == 6) );
 	}
 
 	/*
@@ -274,70 +584,241 @@ public class BoardManager {
 	@return - a boolean representing whether or not the game is over
 	 */
 	public boolean performMove(Point from, Point to) {
-		if (LOGGING)
-			logger.info("Entering performMove from " + from + " to " + to);
-		// determine validity and legality
+		// determine validity
 		if (!isValid(from) || !isValid(to))
 			throw new BoardIndexException("Attempt to perform move with one or more illegal" +
 					"points from: " + from + " to: " + to);
-		else if (!isValidMove(from, to))
+		return performMove(Move.encode(from, to));
+	}
+
+	/*
+	Checks for the validity and legality of the encoded move and then performs it. The flags of the move are
+	worked out from the board, so only the squares and promotion of the move passed in are used. A pawn reaching
+	the last row without a promotion is left as a pawn, to be promoted with promotePawn.
+	@param move - the move to perform, as encoded by Move
+	@return - a boolean representing whether or not the game is over
+	 */
+	public boolean performMove(int move) {
+		if (LOGGING)
+			logger.info("Entering performMove with " + Move.toString(move));
+		move = encodeMove(Move.from(move), Move.to(move), Move.promotion(move));
+
+		// determine validity and legality
+		if (!isValidMove(move))
 			throw new InvalidMoveException("Attempt to perform an invalid move.");
-		else if (!isLegalMove(from, to))
+		else if (!isLegalMove(move))
 			throw new IllegalMoveException("Attempt to perform an illegal move.");
 
+		PieceColor color = Bitboards.color(Mailbox.color(at(Move.from(move))));
+		applyMove(move);
+		if (halfmoveClock == 0)
+			historyCount = 0;	// the move can't be undone, so nothing before it can be repeated
+
+		if (LOGGING) {
+			logger.config("Light: " + getPieceList(PieceColor.light));
+			logger.config("Dark: " + getPieceList(PieceColor.dark));
+		}
+
+		// checks if the game is over
+		return isGameOver(color);
+	}
+
+	/*
+	Performs the move without checking validity or legality, so that it can be undone with unmakeMove. Moves made
+	this way must be undone in the reverse order they were made, and at most UNDO_CAPACITY (1024) can be waiting to be
+	undone at once.
+	@param move - the move to make, which must carry its flags (as the moves from generateMoves and encodeMove do)
+	@throws IllegalStateException - if the undo stack is full
+	 */
+	public void makeMove(int move) {
+		if (undoCount == UNDO_CAPACITY)
+			throw new IllegalStateException("Can't make more than " + UNDO_CAPACITY + " moves without undoing them");
+		int to = Move.to(move);
+
+		// record everything needed to undo the move
+		undoMoves[undoCount] = move;
+		undoCaptured[undoCount] = Move.isEnPassant(move) ? at(enPassantVictim(to)) : at(to);
+		undoDoublePawn[undoCount] = prevMoveDoublePawn;
+		undoCastling[undoCount] = castling;
+		undoLightPoints[undoCount] = lightPoints;
+		undoDarkPoints[undoCount] = darkPoints;
+		undoHashes[undoCount] = hash;
+		undoHalfmoveClocks[undoCount] = halfmoveClock;
+		undoCount++;
+
+		applyMove(move);
+	}
+
+	/*
+	Undoes the last move made with makeMove, restoring the position to exactly what it was before the move
+	@throws IllegalStateException - if there is no move to undo
+	 */
+	public void unmakeMove() {
+		if (undoCount == 0)
+			throw new IllegalStateException("There is no move to undo");
+		undoCount--;
+		int move = undoMoves[undoCount];
+		int from = Move.from(move), to = Move.to(move);
+
+		// move the piece back, turning it back into a pawn if it was promoted
+		byte moved = squares[to];
+		if (Move.isPromotion(move))
+			moved = Mailbox.code(Bitboards.PAWN, Mailbox.color(moved));
+		setPiece(to, Mailbox.EMPTY);
+		setPiece(from, moved);
+
+		// put back whatever was taken
+		byte captured = undoCaptured[undoCount];
+		if (captured != Mailbox.EMPTY)
+			setPiece(Move.isEnPassant(move) ? enPassantVictim(to) : to, captured);
+
+		if (Move.isCastle(move))
+			moveCastlingRook(to, true);
+
+		prevMoveDoublePawn = undoDoublePawn[undoCount];
+		castling = undoCastling[undoCount];
+		lightPoints = undoLightPoints[undoCount];
+		darkPoints = undoDarkPoints[undoCount];
+		hash = undoHashes[undoCount];
+		halfmoveClock = undoHalfmoveClocks[undoCount];
+		historyCount--;
+		sideToMove = Mailbox.color(moved);
+		if (sideToMove == Bitboards.DARK)
+			fullmoveNumber--;
+	}
+
+	/*
+	Moves the pieces for the given move and updates the rest of the state of the board to match
+	 */
+	private void applyMove(int move) {
+		int from = Move.from(move), to = Move.to(move);
+
+		if (historyCount == history.length)
+			history = Arrays.copyOf(history, history.length * 2);
+		history[historyCount++] = hash;
 
 		// determine the two pieces that are being dealt with
-		Piece movingPiece = at(from);
-		Piece deadPiece = at(to);
+		byte movingPiece = squares[from];
+		byte deadPiece = squares[to];
+
+		// take the old castling rights and en passant file out of the key
+		hash ^= Zobrist.castling(castling) ^ enPassantKey();
+
+		// handle edge case for taking in an en passant, where the dead piece is not on the square moved to
+		if (Move.isEnPassant(move)) {
+			int victim = enPassantVictim(to);
+			deadPiece = squares[victim];
+			setPiece(victim, Mailbox.EMPTY);
+		}
 
 		// clean the corpse for the dead one
-		if (deadPiece != null) {
-			if (deadPiece.getColor() == PieceColor.light)	// updates the point total
-				darkPoints += deadPiece.points;
+		if (deadPiece != Mailbox.EMPTY) {
+			if (Mailbox.color(deadPiece) == Bitboards.LIGHT)	// updates the point total
+				darkPoints += Mailbox.points(Mailbox.type(deadPiece));
 			else
-				lightPoints += deadPiece.points;
+				lightPoints += Mailbox.points(Mailbox.type(deadPiece));
 		}
 
-		boolean isEnPassant = isEnPassant(from, to);
+		// update our doublePawnMove to keep track of the possibility of en-passant
+		prevMoveDoublePawn = Move.isDoublePawn(move) ? to : -1;
+
+		// move the pieces on the board
+		movePiece(from, to);
+
+		// handle the rook for a castle, and the promotion if one was asked for
+		if (Move.isCastle(move))
+			moveCastlingRook(to, false);
+		if (Move.isPromotion(move))
+			setPiece(to, Mailbox.code(Move.promotion(move), Mailbox.color(movingPiece)));
 
-		// check and update our doublePawnMove to keep track of the possibility of en-passant
-		if (at(from) != null && at(from).iden() == 'P' && to.x == from.x && Math.abs(to.y - from.y) == 2)
-			prevMoveDoublePawn = (Point)to.clone();		// clone the point just to be safe
+		castling &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+		sideToMove = 1 - Mailbox.color(movingPiece);
+
+		// captures and pawn moves can't be undone, so they start the count of moves towards a draw again
+		if (deadPiece != Mailbox.EMPTY || Mailbox.type(movingPiece) == Bitboards.PAWN)
+			halfmoveClock = 0;
 		else
-			prevMoveDoublePawn = null;
+			halfmoveClock++;
+		if (sideToMove == Bitboards.LIGHT)
+			fullmoveNumber++;
 
-		// move the pieces on the board
-		setLocation(movingPiece, to.x, to.y);	// set new location to new piece (taken piece is g.c.)
-		setLocation(null, from.x, from.y);	// set old location to null
+		// and put the new ones in, flipping the side to move
+		hash ^= Zobrist.castling(castling) ^ enPassantKey() ^ Zobrist.darkToMove();
+	}
 
-		// handle edge case for taking in an en passant
-		if (isEnPassant) {
-			if (movingPiece.colorMatches(PieceColor.light))
-				lightPoints++;
-			else
-				darkPoints++;
-			setLocation(null, to.x, (movingPiece.colorMatches(PieceColor.light) ? (to.y - 1) : (to.y + 1) ));
-		}
+	/*
+	Returns the key for the en passant file if the last move was a double pawn move which an enemy pawn could take
+	en passant, and 0 otherwise. Double pawn moves which can't be taken leave the key alone, so the same position
+	reached with or without one gets the same key.
+	 */
+	private long enPassantKey() {
+		if (prevMoveDoublePawn < 0)
+			return 0L;
+		int color = (Bitboards.rankOf(prevMoveDoublePawn) == 3) ? Bitboards.LIGHT : Bitboards.DARK;
+		int skipped = (color == Bitboards.LIGHT) ? prevMoveDoublePawn - 8 : prevMoveDoublePawn + 8;
+		if ((Leapers.pawnAttacks(color, skipped) & pieceBoards[1 - color][Bitboards.PAWN]) == 0)
+			return 0L;
+		return Zobrist.enPassant(Bitboards.fileOf(prevMoveDoublePawn));
+	}
 
-		if (LOGGING) {
-			logger.config("Light: " + getPieceList(PieceColor.light));
-			logger.config("Dark: " + getPieceList(PieceColor.dark));
-		}
+	/*
+	Moves the rook involved in a castle
+	@param kingTo - the square the king castled to
+	@param undo - true to move the rook back to its corner, false to move it next to the king
+	 */
+	private void moveCastlingRook(int kingTo, boolean undo) {
+		boolean kingside = Bitboards.fileOf(kingTo) == 6;
+		int corner = kingside ? kingTo + 1 : kingTo - 2;
+		int inside = kingside ? kingTo - 1 : kingTo + 1;
+		if (undo)
+			movePiece(inside, corner);
+		else
+			movePiece(corner, inside);
+	}
 
-		// checks if the game is over
-		return isGameOver(movingPiece.getColor());
+	/*
+	Returns the square of the pawn taken by an en passant which lands on the given square
+	 */
+	private static int enPassantVictim(int to) {
+		return (Bitboards.rankOf(to) == 5) ? to - 8 : to + 8;
+	}
+
+	/*
+	Encodes the move between the two squares, working out its flags from the current board. The promotion is
+	dropped unless the move takes a pawn to its last row.
+	@param from - the square to move from
+	@param to - the square to move to
+	@param promotion - the piece type to promote to, or 0 for no promotion
+	@return - the encoded move
+	 */
+	public int encodeMove(int from, int to, int promotion) {
+		byte p = at(from);
+		long destination = Bitboards.bit(to);
+		int flags = ((occupied & destination) != 0) ? Move.CAPTURE : 0;
+		if (Mailbox.type(p) == Bitboards.KING && Math.abs(to - from) == 2)
+			return Move.encode(from, to, 0, flags | Move.CASTLE);
+		if (Mailbox.type(p) != Bitboards.PAWN)
+			return Move.encode(from, to, 0, flags);
+
+		int color = Mailbox.color(p);
+		if (Math.abs(to - from) == 16)
+			flags |= Move.DOUBLE_PAWN;
+		else if ((enPassantTarget(color) & destination) != 0 && Bitboards.fileOf(from) != Bitboards.fileOf(to))
+			flags |= Move.CAPTURE | Move.EN_PASSANT;
+		if ((destination & (Bitboards.RANK_1 | Bitboards.RANK_8)) == 0 || promotion == Bitboards.KING)
+			promotion = 0;
+		return Move.encode(from, to, promotion, flags);
 	}
 
 	private boolean promotingPawn(Point to) {
-		Piece p = at(to);
-		if (p == null || p.iden() != 'P') return false;
-		return (p.colorMatches(PieceColor.light) && to.y == 7) ||
-				(p.colorMatches(PieceColor.dark) && to.y == 0);
+		byte p = at(to);
+		if (Mailbox.type(p) != Bitboards.PAWN) return false;
+		return (Mailbox.color(p) == Bitboards.LIGHT && to.y == 7) ||
+				(Mailbox.color(p) == Bitboards.DARK && to.y == 0);
 	}
 
 	public void promotePawn(Point at) {
 		if (!promotingPawn(at)) return;
-		PieceColor color = at(at).getColor();
 
 		String[] options = new String[]{"Knight", "Queen"};
 		int response = JOptionPane.showOptionDialog(null,
@@ -365,18 +846,18 @@ public class BoardManager {
 
 	public void promotePawn(Point at, int identifier) {
 		if (!promotingPawn(at)) return;
-		PieceColor color = at(at).getColor();
+		int color = Mailbox.color(at(at));
 
-		Piece p = null;
+		byte p = Mailbox.EMPTY;
 		switch (identifier) {
-			case 0:
-				p = new Knight(color, at.x, at.y);
+			case KNIGHT_IDENTIFIER:
+				p = Mailbox.code(Bitboards.KNIGHT, color);
 				break;
-			case 1:
-				p = new Queen(color, at.x, at.y);
+			case QUEEN_IDENTIFIER:
+				p = Mailbox.code(Bitboards.QUEEN, color);
 				break;
 		}
-		setLocation(p, at.x, at.y);
+		setPiece(Bitboards.square(at.x, at.y), p);
 	}
 
 	/*
@@ -387,80 +868,100 @@ public class BoardManager {
 	@return - true if the move is a valid one and false if the move is not a valid one
 	 */
 	public boolean isValidMove(Point from, Point to) {
+		return isValid(from) && isValid(to) && isValidMove(Move.encode(from, to));
+	}
+
+	/*
+	Same as isValidMove with points; however, takes an encoded move
+	 */
+	public boolean isValidMove(int move) {
 		// Need to check (a) within valid lines, (b) is not going on top of a piece of the same color,
 		// (c) nothing is blocking it (excluding knight movement) along with special considerations
 		// pawns, castling, etc.
+		int from = Move.from(move);
+		long destination = Bitboards.bit(Move.to(move));
 
-		// (a) within valid lines
-		Piece p = at(from);
-		Piece taken = at(to);
-		if (p == null || !p.isValidMove(from, to))		// checks for degenerate case and that move lines up
+		byte p = at(from);
+		if (p == Mailbox.EMPTY)		// checks for degenerate case
 			return false;
-
+		int color = Mailbox.color(p);
 
 		// (b) not going to end up on top of a piece of the same color
-		if (taken != null && taken.colorMatches(p))
+		if ((colorBoards[color] & destination) != 0)
 			return false;
 
-		// (c) nothing is blocking it (excluding knight movement)
-
-		// f is a function that will keep checking until we hit something and update isLegal to check
-		// if we have actually made it to the point we are trying to get to
-		Function f = new Function() {
-			@Override
-			public boolean run(int x, int y) {
-				Piece p = at(x, y);				// get the piece
-				if (x == to.x && y == to.y) {	// if we hit the point we are trying to get, we are done
-					isLegal = true;	// move is legal (we already guaranteed not same color)
-					return false;	// no need to continue
-				}
-				return p == null;	// if we hit a piece, then we are done in this direction
-			}
-		};
-
-		switch (p.iden()) {		// to determine whether or not the move is valid given specific considerations
-			case 'K':	// must check whether it puts the king in check
-				boolean ret = kingCanTake(from, to);
-				return kingCanTake(from, to);
-			case 'Q':	// check diagonals and lines
-				isLegal = false;
-				checkDiagonals(from, f);
-				if (isLegal) return true;
-				checkLines(from, f);
-				return isLegal;
-			case 'B':	// check diagonals
-				isLegal = false;
-				checkDiagonals(from, f);
-				return isLegal;
-			case 'N':	// don't need to do anything (a) checks hits and (b) checks right color / null
-				// this case is covered in initial valid move check of piece
-				return true;
-			case 'R':	// check lines
-				isLegal = false;
-				checkLines(from, f);
-				return isLegal;
-			case 'P':
-				return isValidPawnMove(from, to);
+		// (a) and (c) within valid lines and nothing is blocking it (excluding knight movement)
+		// the attack tables only reach the destination if the move lines up and every square in between is empty
+		switch (Mailbox.type(p)) {		// to determine whether or not the move is valid given specific considerations
+			case Bitboards.KING:	// must be one step away (or a castle), whether it puts the king in check is left to isLegalMove
+				return (Leapers.kingAttacks(from) & destination) != 0 || isValidCastle(from, Move.to(move), color);
+			case Bitboards.QUEEN:	// check diagonals and lines
+				return (Magics.queenAttacks(from, occupied) & destination) != 0;
+			case Bitboards.BISHOP:	// check diagonals
+				return (Magics.bishopAttacks(from, occupied) & destination) != 0;
+			case Bitboards.KNIGHT:	// knights jump, so only need to check the destination is one of its squares
+				return (Leapers.knightAttacks(from) & destination) != 0;
+			case Bitboards.ROOK:	// check lines
+				return (Magics.rookAttacks(from, occupied) & destination) != 0;
+			case Bitboards.PAWN:
+				return isValidPawnMove(from, destination, color);
 		}
 		System.err.println("Unidentified piece was checked for a valid move.");
 		return true;
 	}
 
+	/*
+	Determines if a king move is a castle which is currently allowed. The king must still have the castling right
+	(so neither it nor the rook has moved), the squares between must be empty, and the king can't be castling out of
+	or through check. Whether the king ends up in check is left to isLegalMove.
+	@param from - the square of the king
+	@param to - the square the king is moving to
+	@param color - the color index of the king
+	@return - true if the king may castle to the given square
+	 */
+	private boolean isValidCastle(int from, int to, int color) {
+		int home = (color == Bitboards.LIGHT) ? 4 : 60;
+		if (from != home || Math.abs(to - from) != 2)
+			return false;
+
+		boolean kingside = to > from;
+		int right = (color == Bitboards.LIGHT)
+				? (kingside ? LIGHT_KINGSIDE : LIGHT_QUEENSIDE)
+				: (kingside ? DARK_KINGSIDE : DARK_QUEENSIDE);
+		int rook = kingside ? home + 3 : home - 4;
+		if ((castling & right) == 0 || (pieceBoards[color][Bitboards.ROOK] & Bitboards.bit(rook)) == 0)
+			return false;
+
+		// every square between the king and rook must be empty
+		long between = kingside ? (3L << (home + 1)) : (7L << (home - 3));
+		if ((occupied & between) != 0)
+			return false;
+
+		int step = kingside ? 1 : -1;
+		return !isAttacked(from, 1 - color) && !isAttacked(from + step, 1 - color);
+	}
+
 	public boolean isValidPawnMove(Point from, Point to) {
+		byte p = at(from);
+		if (Mailbox.type(p) != Bitboards.PAWN || !isValid(to))
+			return false;
+		return isValidPawnMove(Bitboards.square(from.x, from.y), Bitboards.bit(Bitboards.square(to.x, to.y)),
+				Mailbox.color(p));
+	}
 
+	private boolean isValidPawnMove(int from, long destination, int color) {
 		// case 1: we are attempting to do a diagonal movement (better be taking something)
-		if (to.x != from.x) {
-			if (at(to) != null)	// standard diagonal movement
-				return true;
-			return isEnPassant(from, to);
-		} else if (Math.abs(to.y - from.y) == 1) { // case 2: moving forward one
-			return at(to) == null;
-		} else if (Math.abs(to.y - from.y) == 2) { // case 3: move forward two
-			return atStartingRow(at(from));
-		}
+		if ((Leapers.pawnAttacks(color, from) & destination) != 0)
+			return ((colorBoards[1 - color] | enPassantTarget(color)) & destination) != 0;
+
+		// case 2: moving forward one
+		long forward = Bitboards.pawnPush(Bitboards.bit(from), color) & ~occupied;
+		if (forward == destination)
+			return true;
 
-		System.err.println("Attempt to check valid pawn move, without a call to pawn's valid move");
-		return false;
+		// case 3: move forward two, from the starting row and over an empty square
+		long start = (color == Bitboards.LIGHT) ? Bitboards.RANK_2 : Bitboards.RANK_7;
+		return (start & Bitboards.bit(from)) != 0 && (Bitboards.pawnPush(forward, color) & ~occupied) == destination;
 	}
 
 	/*
@@ -471,38 +972,38 @@ public class BoardManager {
 	@return - true if the move is legal, and false if the move is not legal
 	 */
 	public boolean isLegalMove(Point from, Point to) {
+		return isValid(from) && isValid(to) &&
+				isLegalMove(encodeMove(Bitboards.square(from.x, from.y), Bitboards.square(to.x, to.y), 0));
+	}
+
+	/*
+	Same as isLegalMove with points; however, takes an encoded move which must carry its flags
+	 */
+	public boolean isLegalMove(int move) {
 		// Need to check (a) whether this move leaves the kin in check or puts the king in check
 
-		if (at(from) == null)
+		byte p = at(Move.from(move));
+		if (p == Mailbox.EMPTY)
 			return false;		// you can't move nothing
 
-		PieceColor color = at(from).getColor();	// gets the color of the moving piece
+		PieceColor color = Bitboards.color(Mailbox.color(p));	// gets the color of the moving piece
 
-		return !testMove(from, to, new Function() {
-			@Override
-			public boolean run(int x, int y) {
-				return kingInCheck(color);
-			}
-		});
+		makeMove(move);
+		boolean inCheck = kingInCheck(color);
+		unmakeMove();
+		return !inCheck;
 	}
 
 	/*
-	Determines if the move is an enPassant
-	@param from - the origin of the move
-	@param to - the destination of the move
-	@return - true if the move is an enPassant, false otherwise
+	Finds the square a pawn of the given color could take with an en-passant
+	@param color - the color index of the pawn doing the taking
+	@return - a bitboard with the square behind the pawn that just moved forward two, or 0 if there is none
 	 */
-	private boolean isEnPassant(Point from, Point to) {
-		if (at(from) == null || at(from).iden() != 'P')		// degenerate case of not a pawn
-			return false;
-
-		if (isValid(prevMoveDoublePawn) && prevMoveDoublePawn.x == to.x		// if the prev move was
-				&& Math.abs(prevMoveDoublePawn.y - to.y) == 1) {			// a double pawn and loc. match
-			// we have an en-passant
-			return ( at(prevMoveDoublePawn) != null && at(prevMoveDoublePawn).iden() == 'P');
-			// might be able to replace this with return true; however, doesn't hurt to check.
-		}
-		return false;
+	private long enPassantTarget(int color) {
+		if (prevMoveDoublePawn < 0)
+			return 0L;
+		long doublePawn = Bitboards.bit(prevMoveDoublePawn) & pieceBoards[1 - color][Bitboards.PAWN];
+		return Bitboards.pawnPush(doublePawn, color) & ~occupied;
 	}
 
 	/*
@@ -513,18 +1014,11 @@ public class BoardManager {
 	public boolean isGameOver(PieceColor moved) {
 		PieceColor moveColor = (moved == PieceColor.dark) ? (PieceColor.light) : PieceColor.dark;
 
-		ArrayList<Tuple<Point, Point>> moves = findAllMoves(moveColor);
+		boolean over = !hasLegalMove(moveColor);
 		if (LOGGING)
-			logger.config("Checking isGameOver with moves, " + moves);
-
-		for (Tuple<Point, Point> t : moves) {
-			if ( at(t.x) != null && at(t.x).colorMatches(moveColor) &&
-					isValidMove(t.x, t.y) && isLegalMove(t.x, t.y)) {
-				return false;
-			}
-		}
+			logger.config("Checking isGameOver for " + moveColor + ": " + over);
 
-		return true;
+		return over;
 
 	}
 
@@ -532,19 +1026,26 @@ public class BoardManager {
 	public boolean canMove(Point from, Point to) {
 		if (!isValid(from) || !isValid(to)) return false;
 
-		Piece p = at(from);
-		if (p == null) return false;
+		byte p = at(from);
+		if (p == Mailbox.EMPTY) return false;
 
 		boolean valid = isValidMove(from, to);
 		if (!valid) return false;
 		boolean legal = isLegalMove(from, to);
 		if (!legal) return false;
-		if (p.iden() == 'K') {
+		if (Mailbox.type(p) == Bitboards.KING && Math.abs(to.x - from.x) < 2) {	// castles were checked by isLegalMove
 			return kingCanTake(from, to);
 		}
 		return true;
 	}
 
+	/*
+	Same as canMove with points; however, takes an encoded move
+	 */
+	public boolean canMove(int move) {
+		return isValidMove(move) && isLegalMove(move);
+	}
+
 	/*
 	Checks whether the king can make the move specified
 	@param origLocation - the original location of the king (which must contain a king)
@@ -553,19 +1054,26 @@ public class BoardManager {
 	cant take the given position
 	 */
 	public boolean kingCanTake(Point orig, Point location) {
-		if (at(orig) == null || at(orig).iden() != 'K') return false;	// check degenerate case
-		Function isKingInCheck = new Function() {
-			@Override
-			public boolean run(int x, int y) {
-				return canBeTaken(at(orig));
-			}
-		};
-		if( testMove(orig, location, isKingInCheck)) {
+		byte king = at(orig);
+		if (Mailbox.type(king) != Bitboards.KING || !isValid(location)) return false;	// check degenerate case
+		int from = Bitboards.square(orig.x, orig.y), to = Bitboards.square(location.x, location.y);
+		if ((Leapers.kingAttacks(from) & Bitboards.bit(to)) == 0)
 			return false;
-		}
+		return isSafeKingStep(from, to, Mailbox.color(king));
+	}
 
-		// Check if we are moving next to another king
-		return true;
+	/*
+	Determines if a king can step to a neighbouring square without being in check there. Rather than trying the
+	step, the square is checked for attackers with the king lifted off the board, so a slider can't be hidden
+	behind the king itself. An enemy king next to the square attacks it like any other piece, which keeps the
+	kings apart without having to ask whether the other king could take back.
+	@param from - the square of the king
+	@param to - the square being stepped to
+	@param color - the color index of the king
+	@return - true if the king is safe on the square
+	 */
+	private boolean isSafeKingStep(int from, int to, int color) {
+		return attackersTo(to, 1 - color, occupied ^ Bitboards.bit(from)) == 0;
 	}
 
 	/*
@@ -574,582 +1082,725 @@ public class BoardManager {
 	@return - true if the king is in check and false if the king is not in check
 	 */
 	public boolean kingInCheck(PieceColor color) {
-		Point p = findKing(color);
-		return canBeTaken(p);
+		int c = Bitboards.colorIndex(color);
+		long king = pieceBoards[c][Bitboards.KING];
+		return king != 0 && isAttacked(Bitboards.first(king), 1 - c);
 	}
 
 	/*
-	Iterates through the board and determines all possible moves for a specific color
+	Iterates through the pieces of a color and determines all possible moves for them
 	@param color - the color of the pieces which should be checked for moves
-	@return - a list of all possible moves as
+	@return - an array of all possible moves, encoded by Move
 	 */
-	public ArrayList<Tuple<Point, Point>> findAllMoves(PieceColor color) {
-		ArrayList<Tuple<Point, Point>> list = new ArrayList<>();
-		for (int x = 0; x < 8; x++) {
-			for (int y = 0; y < 8; y++) {	// iterate over the entire board
-				if (at(x, y) != null && at(x, y).colorMatches(color))
-					list.addAll(findAllMoves(x, y));
-			}
-		}
-		return list;
+	public int[] generateMoves(PieceColor color) {
+		MoveList list = new MoveList();
+		generateMoves(color, list);
+		return Arrays.copyOf(list.moves, list.size());
 	}
 
 	/*
-	Returns all possible moves from the given location
-	@param x, y - the location to check
-	@return - an empty list if the point is not valid or a piece is null, otherwise a list of all locations
-	the piece residing at that location
+	Same as generateMoves; however, writes the moves into a list supplied by the caller rather than allocating,
+	replacing whatever the list held before. This is the path to use when generating moves repeatedly.
+	@param color - the color of the pieces which should be checked for moves
+	@param list - the list to write the moves into
+	@return - the number of moves written
 	 */
-	public ArrayList<Tuple<Point, Point>> findAllMoves(int x, int y) {
-		ArrayList<Tuple<Point, Point>> list = new ArrayList<>();
-		if (at(x, y) == null)
-			return list;
-		Piece p = at(x, y);	// p is not null
-		Point from = new Point(x, y);
-
-		FindMoveFunction stop = new FindMoveFunction(from, p.getColor(), true);
-		FindMoveFunction dontStop = new FindMoveFunction(from, p.getColor(), false);
-		switch(p.iden()) {
-			case 'P':
-				return findPawnMoves(from);
-			case 'Q':
-				checkDiagonals(from, stop);
-				checkLines(from, stop);
-				return stop.getMoves();
-			case 'K':
-				// check surrounding squares for places king can take
-				adjacent(from, new Function() {
-					@Override
-					public boolean run(int x, int y) {
-						if (kingCanTake(from, new Point(x, y))) {
-							list.add(new Tuple(from, new Point(x, y)));
-						}
-						return true;
-					}
-				});
-				return list;
-			case 'R':
-				checkLines(from, stop);
-				return stop.getMoves();
-			case 'B':
-				checkDiagonals(from, stop);
-				return stop.getMoves();
-			case 'N':
-				knightMoves(from, dontStop);
-				return dontStop.getMoves();
-
-		}
-		return list;
+	public int generateMoves(PieceColor color, MoveList list) {
+		list.setSize(generateMoves(Bitboards.colorIndex(color), GEN_ALL, list.moves, 0));
+		return list.size();
 	}
 
 	/*
-	Counts the number of pieces being currently threatened by the color passed in
-	@parameters:
-		color: the piece color doing the threatening
-	@return: An ArrayList of points for the pieces currently being threatened
+	Iterates through the pieces of a color and determines all legal moves for them, so none of the moves leave
+	the king in check
+	@param color - the color of the pieces which should be checked for moves
+	@return - an array of all legal moves, encoded by Move
 	 */
-	public ArrayList<Tuple<Point, Point>> determineThreats(PieceColor color) {
-
-		ArrayList<Tuple<Point, Point>> moves = findAllMoves(color);
-		ArrayList<Tuple<Point, Point>> takes = new ArrayList<Tuple<Point, Point>>(moves.size());
-		for (Tuple<Point, Point> t : moves) {
-			Piece p = at(t.y);
-			if (p != null && !p.colorMatches(color)) takes.add(t);
-		}
-		return takes;
+	public int[] generateLegalMoves(PieceColor color) {
+		MoveList list = new MoveList();
+		generateLegalMoves(color, list);
+		return Arrays.copyOf(list.moves, list.size());
 	}
 
 	/*
-	Finds all possible moves for the pawn at the location passed in
-	@param location - the location of the pawn
-	@return - an arraylist of tuples for every possible move the pawn can make
+	Same as generateLegalMoves; however, writes the moves into a list supplied by the caller rather than allocating
+	@param color - the color of the pieces which should be checked for moves
+	@param list - the list to write the moves into
+	@return - the number of moves written
 	 */
-	public ArrayList<Tuple<Point, Point>> findPawnMoves(Point location) {
-		ArrayList<Tuple<Point, Point>> list = new ArrayList<>();
-		// check degenerate cases
-		Piece pawn = at(location);
-		if (!isValid(location) || pawn == null || pawn.iden() != 'P')
-			return list;
-
-		int yModifier = (pawn.colorMatches(PieceColor.light) ? 1 : -1);
-
-		// check for forward movement
-		Point p2 = new Point(location.x, location.y + yModifier);
-		Point p3 = new Point(location.x, location.y + 2 * yModifier);
-
-		if (isValid(p2) && at(p2) == null) {
-			list.add(new Tuple(location, p2));
-			if (atStartingRow(pawn) && at(p3) == null)
-				list.add(new Tuple(location, p3));
-		}
-
-		// check for diagonal movement
-		Point p4 = new Point(location.x + 1, location.y + yModifier);
-		Point p5 = new Point(location.x - 1, location.y + yModifier);
-
-		if (isValid(p4) && at(p4) != null && !pawn.colorMatches(at(p4))){
-			list.add(new Tuple(location, p4));
-		}
-		if (isValid(p5) && at(p5) != null && !pawn.colorMatches(at(p5))) {
-			list.add(new Tuple(location, p5));
-		}
-
-		// check for en-passant
-		if (isValid(p4)) {
-			Point taken = new Point(location.x + 1, location.y);
-			if ( at(p4) != null && !pawn.colorMatches(at(p4))
-				|| ( at(p4) == null && !pawn.colorMatches(at(taken))) )
-				list.add(new Tuple(location, p4));
-		}
-
-		if (isValid(p5)) {
-			Point taken = new Point(location.x + 1, location.y);
-			if ( at(p5) != null && !pawn.colorMatches(at(p5))
-				|| at(p5) == null && !pawn.colorMatches(at(taken)) )
-				list.add(new Tuple(location, p5));
-		}
+	public int generateLegalMoves(PieceColor color, MoveList list) {
+		return generateLegalMoves(color, GEN_ALL, list);
+	}
 
-		return list;
+	/*
+	Same as generateLegalMoves; however, only generates the given kinds of moves
+	@param color - the color of the pieces which should be checked for moves
+	@param kinds - GEN_CAPTURES for moves which take a piece, GEN_QUIETS for the rest, or GEN_ALL for both
+	@param list - the list to write the moves into
+	@return - the number of moves written
+	 */
+	public int generateLegalMoves(PieceColor color, int kinds, MoveList list) {
+		int c = Bitboards.colorIndex(color);
+		int count = generateMoves(c, kinds, list.moves, 0);
+		list.setSize(filterLegal(c, list.moves, count));
+		return list.size();
 	}
 
 	/*
-	Determines if the piece at the given point can be taken by anything
-	@param p - the point of the piece to be checked
-	@return - a boolean representing whether or not hte piece at the given location can be taken
+	Removes the moves which would leave the king in check from the moves array, keeping the order of the rest.
+	Rather than trying each move, the checking pieces and the pinned pieces are worked out once for the position:
+		- with two pieces giving check only the king can move
+		- with one piece giving check any other move must take the checker or block it
+		- a pinned piece can only move along the line between its king and the piece pinning it
+		- the king can't step onto a square attacked once it has left its own square
+	En passant can uncover the king along the rank of both pawns, so those few moves are tried on the board instead.
+	@param color - the color index of the pieces being moved
+	@param moves - the pseudo-legal moves, as written by generateMoves
+	@param count - the number of moves in the array
+	@return - the number of legal moves left at the start of the array
 	 */
-	public boolean canBeTaken(Point p) {
-		return canBeTaken(at(p));
+	private int filterLegal(int color, int[] moves, int count) {
+		long kingBoard = pieceBoards[color][Bitboards.KING];
+		if (kingBoard == 0)
+			return count;		// nothing to keep safe
+		int king = Bitboards.first(kingBoard);
+		int them = 1 - color;
+
+		long checkers = attackersTo(king, them, occupied);
+		long checkMask = checkMask(king, checkers);
+		long pinned = pinnedPieces(king, color);
+
+		int legal = 0;
+		for (int i = 0; i < count; i++) {
+			if (isLegal(moves[i], king, checkers, checkMask, pinned))
+				moves[legal++] = moves[i];
+		}
+		return legal;
 	}
 
 	/*
-	Determines if the given piece can be taken from anything
-	Note: default behaviour is to return false if the piece is null.
-	@param p - the peice to be checked
-	@return - a boolean representing whether or not the piece passed in can be taken
+	Determines if a pseudo-legal move is legal, given the state of the position worked out by filterLegal
+	@param move - the move to check
+	@param king - the square of the moving side's king
+	@param checkers - the pieces giving check
+	@param checkMask - the squares a piece other than the king must move to, from checkMask
+	@param pinned - the pieces pinned to the king
+	@return - true if the move doesn't leave the king in check
 	 */
-	public boolean canBeTaken(Piece p) {
-		if (p == null)
+	private boolean isLegal(int move, int king, long checkers, long checkMask, long pinned) {
+		int from = Move.from(move), to = Move.to(move);
+		int them = 1 - Mailbox.color(squares[king]);
+		if (from == king) {
+			if (Move.isCastle(move))
+				return checkers == 0 && attackersTo(to, them, occupied) == 0;
+			return isSafeKingStep(king, to, 1 - them);
+		}
+		if (Long.bitCount(checkers) > 1)
 			return false;
-
-		Point location = p.getPoint();		// the point of the piece
-		PieceColor color = (p.getColor() == PieceColor.light) ? PieceColor.dark : PieceColor.light;
-
-
-		// checks straight paths
-		straightPieces.reset(color);
-		upX(location, straightPieces);
-		upY(location, straightPieces);
-		downX(location, straightPieces);
-		downY(location, straightPieces);
-		if (straightPieces.foundPiece())
-			return true;
-
-		// checks diagonal paths
-		diagPieces.reset(color);
-		ascXandY(location, diagPieces);
-		ascXdescY(location, diagPieces);
-		descXandY(location, diagPieces);
-		descXascY(location, diagPieces);
-		if (diagPieces.foundPiece())
-			return true;
-
-		// checks for knights
-		knightPiece.reset(color);
-		knightMoves(location, knightPiece);
-		if (knightPiece.foundPiece())
-			return true;
-
-		// checks for diagonal pawns
-		pawnPiece.reset(color);
-		if (color == PieceColor.light)
-			backwardsDiagonals(location, pawnPiece);
-		else
-			forwardDiagonals(location, pawnPiece);
-		if (pawnPiece.foundPiece())
-			return true;
-
-		// checks whether or not a king can take this piece
-		kingPiece.reset(color);
-		adjacent(location, kingPiece);
-		ArrayList<Point> points = kingPiece.getPoints();
-
-		ListIterator iter = points.listIterator();
-		while (iter.hasNext()) {
-			Point origLocation = (Point)iter.next();
-			Piece king = at(origLocation);
-			if (king == null || king.iden() != 'K') {
-				System.err.println("Something went wrong when examining whether or not a king could take.");
-				return true;
-			}
-
-			if (!kingCanTake(origLocation, location))
-				iter.remove();
-
+		if (Move.isEnPassant(move)) {
+			makeMove(move);
+			boolean safe = !isAttacked(king, them);
+			unmakeMove();
+			return safe;
 		}
-		if (points.size() > 0)
-			return true;
-		return false;
+		return (checkMask & Bitboards.bit(to)) != 0 &&
+				((pinned & Bitboards.bit(from)) == 0 || (Magics.line(king, from) & Bitboards.bit(to)) != 0);
 	}
 
 	/*
-	----------------------------
-	Misc. Functionality Methods
-	----------------------------
+	Returns the squares a piece other than the king must move to in order to deal with the given checks, which is
+	the checking piece and anything between it and the king. Every square is allowed when there is no check.
 	 */
+	private static long checkMask(int king, long checkers) {
+		if (checkers == 0)
+			return -1L;
+		return checkers | Magics.between(king, Bitboards.first(checkers));
+	}
 
 	/*
-	Performs the given move (without consideration for validity or legality) and then runs func and returns
-	the output
-	@param origLocation - the location of the piece moving
-	@param location - the location to move the piece to
-	@param func - the function to be run after the move is done
-	@return - the return value of func
+	Determines if the given color has any legal move, stopping at the first one found. The cheapest moves to check
+	are tried first: the king's steps, then the pawns, then the other pieces, which are checked straight from
+	their attack sets without generating any moves.
+	@param color - the color to check for moves
+	@return - true if the color has a legal move
 	 */
-	public boolean testMove(Point origLocation, Point location, Function func) {
-		Piece atOrig = at(origLocation);
-		Piece taken = at(location);
-
-		setLocation(null, origLocation.x, origLocation.y);
-		setLocation(atOrig, location.x, location.y);
-
-		boolean result = func.run(location.x, location.y);
-
-		setLocation(atOrig, origLocation.x, origLocation.y);
-		setLocation(taken, location.x, location.y);
-
-		return result;
+	public boolean hasLegalMove(PieceColor color) {
+		return countLegalMoves(Bitboards.colorIndex(color), true) > 0;
 	}
 
 	/*
-	----------------------------
-	Private Functions
-	----------------------------
+	Counts the legal moves for the given color without building a list of them
+	@param color - the color to count the moves of
+	@return - the number of legal moves
 	 */
+	public int legalMoveCount(PieceColor color) {
+		return countLegalMoves(Bitboards.colorIndex(color), false);
+	}
 
 	/*
-	A standard function which will continue searching until a piece of the opposite color is found, and
-	stop at the first piece found if the stopAtFirstPiece boolean is set.
+	Counts the legal moves for a color, in the order described by hasLegalMove
+	@param color - the color index of the pieces to move
+	@param stopAtFirst - true to return as soon as one legal move is found
+	@return - the number of legal moves (at most 1 if stopAtFirst)
 	 */
-	private class SearchFunc implements Function{
-
-		private char[] identifiers;			// the piece identifiers to search for
-		private boolean stopAtFirstPiece;	// should we stop at the first piece we see
-		private PieceColor color;			// the color of the piece being searched for
-		private ArrayList<Point> points = new ArrayList<Point>();	// all points where the pieces are found
-
-		SearchFunc(char[] identifiers, boolean stopAtFirstPiece, PieceColor color) {
-			this.identifiers = identifiers;
-			this.stopAtFirstPiece = stopAtFirstPiece;
-			this.color = color;
-		}
+	private int countLegalMoves(int color, boolean stopAtFirst) {
+		long kingBoard = pieceBoards[color][Bitboards.KING];
+		if (kingBoard == 0)
+			return generateMoves(color, GEN_ALL, new int[ Move.MAX_MOVES ], 0);	// nothing to keep safe
+		int king = Bitboards.first(kingBoard);
+		int them = 1 - color;
+		long allowed = ~colorBoards[color] & ~pieceBoards[them][Bitboards.KING];
+		int count = 0;
 
-		public void reset(PieceColor color) {
-			this.color = color;
-			points = new ArrayList<>();
+		// the king's steps, checked with the king taken off the board so it can't hide behind itself
+		long steps = Leapers.kingAttacks(king) & allowed;
+		while (steps != 0) {
+			int to = Bitboards.first(steps);
+			steps &= steps - 1;
+			if (isSafeKingStep(king, to, color)) {
+				count++;
+				if (stopAtFirst)
+					return count;
+			}
 		}
 
-		public boolean foundPiece() {
-			return points.size() > 0;
+		long checkers = attackersTo(king, them, occupied);
+		if (Long.bitCount(checkers) > 1)
+			return count;		// only the king can deal with a double check
+		long checkMask = checkMask(king, checkers);
+		long pinned = pinnedPieces(king, color);
+
+		// the pawns, whose moves are generated a pawn at a time to handle pushes, promotions and en passant
+		int[] pawnMoves = pawnMoveScratch;
+		long pawns = pieceBoards[color][Bitboards.PAWN];
+		while (pawns != 0) {
+			int square = Bitboards.first(pawns);
+			pawns &= pawns - 1;
+			int generated = generatePawnMoves(square, color, GEN_ALL, pawnMoves, 0);
+			for (int i = 0; i < generated; i++) {
+				if (isLegal(pawnMoves[i], king, checkers, checkMask, pinned)) {
+					count++;
+					if (stopAtFirst)
+						return count;
+				}
+			}
 		}
 
-		public Point getFirstPoint() {
-			if (!foundPiece())
-				return null;
-			return points.get(0);
+		// the other pieces, straight from their attack sets
+		for (int type = Bitboards.KNIGHT; type <= Bitboards.QUEEN; type++) {
+			long pieces = pieceBoards[color][type];
+			while (pieces != 0) {
+				int square = Bitboards.first(pieces);
+				pieces &= pieces - 1;
+				long targets = allowed & checkMask;
+				if ((pinned & Bitboards.bit(square)) != 0)
+					targets &= Magics.line(king, square);
+				switch (type) {
+					case Bitboards.KNIGHT: targets &= Leapers.knightAttacks(square); break;
+					case Bitboards.BISHOP: targets &= Magics.bishopAttacks(square, occupied); break;
+					case Bitboards.ROOK: targets &= Magics.rookAttacks(square, occupied); break;
+					case Bitboards.QUEEN: targets &= Magics.queenAttacks(square, occupied); break;
+				}
+				count += Long.bitCount(targets);
+				if (stopAtFirst && count > 0)
+					return count;
+			}
 		}
 
-		public Piece getFirstPiece() {
-			if (!foundPiece())
-				return null;
-			return at(points.get(0));
+		// castling, which is never the only legal move as the king could take the first step instead
+		if (checkers == 0) {
+			for (int to = king - 2; to <= king + 2; to += 4) {
+				if (isValidCastle(king, to, color) && attackersTo(to, them, occupied) == 0)
+					count++;
+			}
 		}
+		return count;
+	}
 
-		public ArrayList<Point> getPoints() {
-			return points;
+	/*
+	Finds the pieces of a color which are pinned to their king, meaning they are the only piece between the king
+	and an enemy slider
+	@param king - the square of the king
+	@param color - the color index of the king
+	@return - the pinned pieces
+	 */
+	private long pinnedPieces(int king, int color) {
+		long[] enemies = pieceBoards[1 - color];
+		long theirs = colorBoards[1 - color];
+		long snipers = (Magics.rookAttacks(king, theirs) & (enemies[Bitboards.ROOK] | enemies[Bitboards.QUEEN]))
+				| (Magics.bishopAttacks(king, theirs) & (enemies[Bitboards.BISHOP] | enemies[Bitboards.QUEEN]));
+		long pinned = 0L;
+		while (snipers != 0) {
+			int sniper = Bitboards.first(snipers);
+			snipers &= snipers - 1;
+			long blockers = Magics.between(king, sniper) & occupied;
+			if (Long.bitCount(blockers) == 1)
+				pinned |= blockers & colorBoards[color];
 		}
+		return pinned;
+	}
 
-		@Override
-		public boolean run(int x, int y) {
-			Piece p = at(x, y);	// finds the piece at the point
-
-			// tests if the piece is the correct color and matches one of the identifiers
-			if (p != null && p.getColor() == color && identifiersContains(p.iden())) {
-				// we found the piece being searched for
-				points.add(new Point(x, y));
+	/*
+	Adds all possible moves for the pieces of a color to the moves array
+	@param color - the color index of the pieces to move
+	@param kinds - the kinds of moves to add, GEN_CAPTURES, GEN_QUIETS or GEN_ALL
+	@param moves - the array to add the moves to
+	@param count - the number of moves already in the array
+	@return - the number of moves in the array after adding
+	 */
+	private int generateMoves(int color, int kinds, int[] moves, int count) {
+		for (int type = 0; type < Bitboards.PIECE_TYPES; type++) {
+			long pieces = pieceBoards[color][type];
+			while (pieces != 0) {	// iterate over the squares holding a piece of this type
+				int square = Bitboards.first(pieces);
+				pieces &= pieces - 1;
+				count = generatePieceMoves(square, type, color, kinds, moves, count);
 			}
-
-			// tests if we should stop yet
-			if (stopAtFirstPiece && p != null)
-				return false;
-			return true;
 		}
+		return count;
+	}
 
-		private boolean identifiersContains(char c) {
-			for (char iden : identifiers) {
-				if (iden == c) return true;
-			}
-			return false;
+	/*
+	Adds all possible moves for a single piece to the moves array
+	@param square - the square of the piece
+	@param type - the piece type
+	@param color - the color index of the piece
+	@param kinds - the kinds of moves to add, GEN_CAPTURES, GEN_QUIETS or GEN_ALL
+	@param moves - the array to add the moves to
+	@param count - the number of moves already in the array
+	@return - the number of moves in the array after adding
+	 */
+	private int generatePieceMoves(int square, int type, int color, int kinds, int[] moves, int count) {
+		// we can move onto anything but our own pieces and the other king, limited to the kinds of moves asked for
+		long allowed = 0L;
+		if ((kinds & GEN_CAPTURES) != 0)
+			allowed |= colorBoards[1 - color] & ~pieceBoards[1 - color][Bitboards.KING];
+		if ((kinds & GEN_QUIETS) != 0)
+			allowed |= ~occupied;
+		long targets = 0L;
+		switch (type) {
+			case Bitboards.PAWN:
+				return generatePawnMoves(square, color, kinds, moves, count);
+			case Bitboards.KNIGHT:
+				targets = Leapers.knightAttacks(square);
+				break;
+			case Bitboards.BISHOP:
+				targets = Magics.bishopAttacks(square, occupied);
+				break;
+			case Bitboards.ROOK:
+				targets = Magics.rookAttacks(square, occupied);
+				break;
+			case Bitboards.QUEEN:
+				targets = Magics.queenAttacks(square, occupied);
+				break;
+			case Bitboards.KING:
+				targets = Leapers.kingAttacks(square);
+				if ((kinds & GEN_QUIETS) == 0)
+					break;
+				if (isValidCastle(square, square + 2, color))
+					moves[count++] = Move.encode(square, square + 2, 0, Move.CASTLE);
+				if (isValidCastle(square, square - 2, color))
+					moves[count++] = Move.encode(square, square - 2, 0, Move.CASTLE);
+				break;
 		}
+		targets &= allowed;
+		while (targets != 0) {
+			int to = Bitboards.first(targets);
+			targets &= targets - 1;
+			moves[count++] = Move.encode(square, to, 0, ((occupied & Bitboards.bit(to)) != 0) ? Move.CAPTURE : 0);
+		}
+		return count;
 	}
 
 	/*
-	An implementation of Function which will find all possible locations
+	Adds all possible moves for the pawn on the given square to the moves array
 	 */
-	private class FindMoveFunction implements Function {
-
-		// all possible move locations
-		private ArrayList<Tuple<Point, Point>> points = new ArrayList<>();
-		private PieceColor myColor;
-		private Point origin;
-		private boolean stopAtFirstPiece;
+	private int generatePawnMoves(int square, int color, int kinds, int[] moves, int count) {
+		long empty = ~occupied;
+		long start = (color == Bitboards.LIGHT) ? Bitboards.RANK_2 : Bitboards.RANK_7;
 
-		public FindMoveFunction(Point from, PieceColor myColor, boolean stopAtFirstPiece) {
-			this.myColor = myColor;
-			this.origin = from;
-			this.stopAtFirstPiece = stopAtFirstPiece;
+		// check for forward movement
+		long forward = Bitboards.pawnPush(Bitboards.bit(square), color) & empty;
+		if (forward != 0 && (kinds & GEN_QUIETS) != 0) {
+			count = addPawnMoves(square, Bitboards.first(forward), 0, moves, count);
+			long twoForward = Bitboards.pawnPush(forward, color) & empty;
+			if ((start & Bitboards.bit(square)) != 0 && twoForward != 0)
+				moves[count++] = Move.encode(square, Bitboards.first(twoForward), 0, Move.DOUBLE_PAWN);
 		}
 
-		@Override
-		public boolean run(int x, int y) {
-			Piece p = at(x, y);
-			if (p == null) {	// we can move to an empty space
-				points.add(new Tuple<Point, Point>(origin, new Point(x, y)));
-				return true;
-			}
-			if (myColor != p.getColor() && p.iden() != 'K')	// if the color is different, we can take it
-				points.add(new Tuple<Point, Point>(origin, new Point(x, y)));
-			return !stopAtFirstPiece;		// should we continue looking?
-		}
+		if ((kinds & GEN_CAPTURES) == 0)
+			return count;
 
-		public ArrayList<Tuple<Point, Point>> getMoves() {
-			return points;
+		// check for diagonal movement
+		long takes = Leapers.pawnAttacks(color, square) & colorBoards[1 - color] & ~pieceBoards[1 - color][Bitboards.KING];
+		while (takes != 0) {
+			int to = Bitboards.first(takes);
+			takes &= takes - 1;
+			count = addPawnMoves(square, to, Move.CAPTURE, moves, count);
 		}
 
+		// check for en-passant
+		long enPassant = Leapers.pawnAttacks(color, square) & enPassantTarget(color);
+		if (enPassant != 0)
+			moves[count++] = Move.encode(square, Bitboards.first(enPassant), 0, Move.CAPTURE | Move.EN_PASSANT);
+
+		return count;
 	}
 
 	/*
-	A function to determine whether or not the game is impossible to end.
+	Adds a pawn move, adding one move for every possible promotion if the pawn reaches its last row
 	 */
-	public boolean inInfiniteGame() {
-		// test for only kings left
-
-		for (int x = 0; x < 8; x++)
-			for (int y = 0; y < 8; y++)
-				if (at(x, y) != null && at(x, y).iden() != 'K')
-					return false;
-
-		return true;
+	private static int addPawnMoves(int from, int to, int flags, int[] moves, int count) {
+		if ((Bitboards.bit(to) & (Bitboards.RANK_1 | Bitboards.RANK_8)) == 0) {
+			moves[count++] = Move.encode(from, to, 0, flags);
+			return count;
+		}
+		for (int type = Bitboards.QUEEN; type >= Bitboards.KNIGHT; type--)
+			moves[count++] = Move.encode(from, to, type, flags);
+		return count;
 	}
 
 	/*
-	------------------------------------------------------------------------------------------------
-	Parameterized board traversal functions
-	------------------------------------------------------------------------------------------------
+	Iterates through the pieces of a color and determines all possible moves for them
+	Note: Tuples can't hold the promotion, so only one move is included for each pawn promotion
+	@param color - the color of the pieces which should be checked for moves
+	@return - a list of all possible moves as
 	 */
+	public ArrayList<Tuple<Point, Point>> findAllMoves(PieceColor color) {
+		int[] moves = generateMoves(color);
+		return toTuples(moves, moves.length);
+	}
 
+	/*
+	Returns all possible moves from the given location
+	@param x, y - the location to check
+	@return - an empty list if the point is not valid or a piece is null, otherwise a list of all locations
+	the piece residing at that location
+	 */
+	public ArrayList<Tuple<Point, Point>> findAllMoves(int x, int y) {
+		byte p = at(x, y);
+		if (p == Mailbox.EMPTY)
+			return new ArrayList<>();
 
+		int[] moves = new int[ Move.MAX_MOVES ];
+		int count = generatePieceMoves(Bitboards.square(x, y), Mailbox.type(p), Mailbox.color(p), GEN_ALL, moves, 0);
+		return toTuples(moves, count);
+	}
 
 	/*
-	Combines and runs all line movements
+	Converts encoded moves to tuples of points, skipping all but the queen promotion of a pawn
 	 */
-	public static void checkLines(Point p, Function func) {
-		upX(p, func);
-		upY(p, func);
-		downY(p, func);
-		downX(p, func);
+	private static ArrayList<Tuple<Point, Point>> toTuples(int[] moves, int count) {
+		ArrayList<Tuple<Point, Point>> list = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			if (!Move.isPromotion(move) || Move.promotion(move) == Bitboards.QUEEN)
+				list.add(new Tuple<>(Move.fromPoint(move), Move.toPoint(move)));
+		}
+		return list;
 	}
 
 	/*
-	Combines and runs all diagonal movements
+	Finds the moves of a color which take one of the other color's pieces
+	@parameters:
+		color: the piece color doing the threatening
+	@return: An array of the encoded moves which land on a piece currently being threatened
 	 */
-	public static void checkDiagonals(Point p, Function func) {
-		ascXdescY(p, func);
-		ascXandY(p, func);
-		descXascY(p, func);
-		descXandY(p, func);
+	public int[] determineThreats(PieceColor color) {
+		MoveList list = new MoveList();
+		determineThreats(color, list);
+		return Arrays.copyOf(list.moves, list.size());
 	}
 
 	/*
-	A method which will perform the lambda expression while moving up the given row, returning once
-	the lambda expression returns false.
-	@param x - the point to begin iterating from
-	@param func - a function to be run on each x, which has a return value representing whether
-	the next square should be examined.
-	@return - the last point examined is returned.
-	Note: If an illegal x or y is input, then the function will immediately return the initial point
+	Same as determineThreats; however, writes the moves into a list supplied by the caller
+	@return - the number of moves written
 	 */
-	public static Point upX(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x + 1, point.y);});
+	public int determineThreats(PieceColor color, MoveList list) {
+		int count = generateMoves(color, list);
+		long others = colorBoards[1 - Bitboards.colorIndex(color)];
+
+		int takes = 0;
+		for (int i = 0; i < count; i++) {
+			if ((others & Bitboards.bit(Move.to(list.get(i)))) != 0)
+				list.moves[takes++] = list.get(i);
+		}
+		list.setSize(takes);
+		return takes;
 	}
 
-
 	/*
-	Same method as upX; however, works downwards
+	Finds all possible moves for the pawn at the location passed in
+	@param location - the location of the pawn
+	@return - an arraylist of tuples for every possible move the pawn can make
 	 */
-	public static Point downX(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x - 1, point.y);});
+	public ArrayList<Tuple<Point, Point>> findPawnMoves(Point location) {
+		// check degenerate cases
+		if (!isValid(location) || Mailbox.type(at(location)) != Bitboards.PAWN)
+			return new ArrayList<>();
+		return findAllMoves(location.x, location.y);
 	}
 
 	/*
-	Same method as upX; however, works upwards in Y
+	Determines if the piece at the given point can be taken by anything
+	@param p - the point of the piece to be checked
+	@return - a boolean representing whether or not hte piece at the given location can be taken
 	 */
-	public static Point upY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x, point.y + 1);});
+	public boolean canBeTaken(Point p) {
+		byte piece = at(p);
+		if (piece == Mailbox.EMPTY)
+			return false;
+		return isAttacked(Bitboards.square(p.x, p.y), 1 - Mailbox.color(piece));
 	}
 
-
 	/*
-	Same method as upX; however, works downwards in Y
+	Determines if the given square is attacked by any piece of the given color
+	@param square - the square to check
+	@param color - the color index of the attacking pieces
+	@return - true if a piece of the given color could move onto the square
 	 */
-	public static Point downY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x, point.y - 1);});
+	private boolean isAttacked(int square, int color) {
+		return (attackMaps[color] & Bitboards.bit(square)) != 0;
 	}
 
 	/*
-	Same method as upX; however, goes along the ascending diagonal
+	Returns the squares attacked by the pieces of the given color, read from the attack maps
 	 */
-	public static Point ascXandY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x + 1, point.y + 1);});
+	public long getAttacks(PieceColor color) {
+		return attackMaps[Bitboards.colorIndex(color)];
 	}
 
-
 	/*
-	Same method as upX; however, goes along the descending diagonal
+	Returns the number of pieces of the given color attacking a square, read from the attack maps
 	 */
-	public static Point descXandY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x - 1, point.y - 1);});
+	public int attackCount(int square, PieceColor color) {
+		return attackCounts[Bitboards.colorIndex(color)][square];
 	}
 
 	/*
-	Same method as upX; however, goes along the alternating ascending diagonal
+	Adds up the points of the other color's pieces attacked by the given color, counting a piece once for every
+	attacker. Kings are left out, as they can't be taken.
+	@param color - the color doing the attacking
+	@return - the total points under attack
 	 */
-	public static Point descXascY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x - 1, point.y + 1);});
+	public int threatenedPoints(PieceColor color) {
+		int c = Bitboards.colorIndex(color);
+		long targets = attackMaps[c] & colorBoards[1 - c] & ~pieceBoards[1 - c][Bitboards.KING];
+		int sum = 0;
+		while (targets != 0) {
+			int target = Bitboards.first(targets);
+			targets &= targets - 1;
+			sum += attackCounts[c][target] * Mailbox.points(Mailbox.type(squares[target]));
+		}
+		return sum;
 	}
 
+	// the worth of each piece type in a static exchange, in centipawns; the king is worth more than everything else
+	// together, so an exchange never ends with it being taken
+	private static final int[] EXCHANGE_VALUES = {
+			PieceSquareTables.value(Bitboards.PAWN), PieceSquareTables.value(Bitboards.KNIGHT),
+			PieceSquareTables.value(Bitboards.BISHOP), PieceSquareTables.value(Bitboards.ROOK),
+			PieceSquareTables.value(Bitboards.QUEEN), 20000
+	};
+
 	/*
-	Same method as upX; however, goes along the alternating descending diagonal
+	Works out what a move wins or loses once every capture back and forth on its square has been played out, without
+	making any moves (static exchange evaluation). Each side takes with its least valuable piece first and may stop
+	taking whenever carrying on would lose more, and sliders lined up behind a piece join in once it has taken
+	(x-rays). Pins and checks are ignored, and only the first move of the exchange can promote.
+	@param move - the move starting the exchange, as encoded by encodeMove or the generator
+	@return - the material the side making the move comes out ahead by, in centipawns (negative if it loses material)
 	 */
-	public static Point ascXdescY(Point p, Function func) {
-		return checkPoints(p, func, (Point point) -> { point.setLocation(point.x + 1, point.y - 1);});
+	public int staticExchange(int move) {
+		int from = Move.from(move), to = Move.to(move);
+		int[] gains = exchangeGains;
+
+		// the first capture always happens
+		long occupancy = occupied ^ Bitboards.bit(from);
+		gains[0] = 0;
+		if (Move.isEnPassant(move)) {
+			occupancy ^= Bitboards.bit(enPassantVictim(to));
+			gains[0] = EXCHANGE_VALUES[Bitboards.PAWN];
+		} else if (squares[to] != Mailbox.EMPTY) {
+			gains[0] = EXCHANGE_VALUES[Mailbox.type(squares[to])];
+		}
+		int onSquare = EXCHANGE_VALUES[Mailbox.type(squares[from])];
+		if (Move.isPromotion(move)) {
+			gains[0] += EXCHANGE_VALUES[Move.promotion(move)] - EXCHANGE_VALUES[Bitboards.PAWN];
+			onSquare = EXCHANGE_VALUES[Move.promotion(move)];
+		}
+
+		long diagonals = bishopSliders(), straights = rookSliders();
+		long attackers = (attackersTo(to, Bitboards.LIGHT, occupancy) | attackersTo(to, Bitboards.DARK, occupancy))
+				& occupancy;
+		int side = 1 - Mailbox.color(squares[from]);
+
+		int depth = 0;
+		while (true) {
+			long ours = attackers & colorBoards[side];
+			if (ours == 0)
+				break;
+
+			// take with the least valuable attacker
+			int type = Bitboards.PAWN;
+			while ((ours & pieceBoards[side][type]) == 0)
+				type++;
+
+			depth++;
+			gains[depth] = onSquare - gains[depth - 1];
+			onSquare = EXCHANGE_VALUES[type];
+
+			// lift the attacker off the board, uncovering any slider behind it
+			occupancy ^= Long.lowestOneBit(ours & pieceBoards[side][type]);
+			if (type == Bitboards.PAWN || type == Bitboards.BISHOP || type == Bitboards.QUEEN)
+				attackers |= Magics.bishopAttacks(to, occupancy) & diagonals;
+			if (type == Bitboards.ROOK || type == Bitboards.QUEEN)
+				attackers |= Magics.rookAttacks(to, occupancy) & straights;
+			attackers &= occupancy;
+			side = 1 - side;
+		}
+
+		// each side only carries on capturing if it gains from doing so
+		while (depth > 0) {
+			gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+			depth--;
+		}
+		return gains[0];
 	}
 
 	/*
-	Basic interface for iterating over points
+	Determines if a move comes out of its static exchange at least the given amount ahead
+	@param move - the move starting the exchange
+	@param threshold - the least the move must win, in centipawns (0 to keep every move which doesn't lose material)
 	 */
-	interface PointIterator {
-		void updatePoint(Point point);	// iterates the point passed in to the next point
+	public boolean staticExchangeAtLeast(int move, int threshold) {
+		return staticExchange(move) >= threshold;
 	}
 
 	/*
-	Iterates through the point using the PointIterator given, starting from p, checking with f
-	@param p - the point to start from (this point is not checked)
-	@param f - the function to run on each point (return true if you want to continue iterating)
-	@param nextPoint - the point iterator to get our next point
-	@return - the last point checked
+	Finds the pieces of the given color which attack a square, given an occupancy of the board. A king next to the
+	square counts as attacking it.
+	@param square - the square to check
+	@param color - the color index of the attacking pieces
+	@param occupancy - the occupancy to use for blocking sliders, which may differ from the board's
+	@return - the attacking pieces
 	 */
-	public static Point checkPoints(Point p, Function f, PointIterator nextPoint) {
-		Point p2 = (Point)p.clone();
-		nextPoint.updatePoint(p2);
-		while (isValid(p2) && f.run(p2.x, p2.y)) {
-			nextPoint.updatePoint(p2);
-		}
-		return p2;
+	private long attackersTo(int square, int color, long occupancy) {
+		long[] attackers = pieceBoards[color];
+		return (Magics.rookAttacks(square, occupancy) & (attackers[Bitboards.ROOK] | attackers[Bitboards.QUEEN]))
+				| (Magics.bishopAttacks(square, occupancy) & (attackers[Bitboards.BISHOP] | attackers[Bitboards.QUEEN]))
+				| (Leapers.knightAttacks(square) & attackers[Bitboards.KNIGHT])
+				| (Leapers.pawnAttacks(1 - color, square) & attackers[Bitboards.PAWN])
+				| (Leapers.kingAttacks(square) & attackers[Bitboards.KING]);
 	}
 
 	/*
-	Same method as upX; however, checks surrounding squares
+	----------------------------
+	Misc. Functionality Methods
+	----------------------------
 	 */
-	public static Point adjacent(Point p, Function func) {
-		Point p2 = null;
-		for (int x = -1; x <= 1; x++) {
-			for (int y = -1; y <= 1; y++) {
-				if ((x == y && x == 0) || !isValid(p))
-					continue;
 
-				p2 = new Point(p.x + x, p.y + y);
-				if (isValid(p2) && !func.run(p.x + x, p.y + y))
-					return p2;
-			}
-		}
-		return new Point(p.x + 1, p.y + 1);
+	/*
+	Performs the given move (without consideration for validity or legality) and then runs func and returns
+	the output
+	@param origLocation - the location of the piece moving
+	@param location - the location to move the piece to
+	@param func - the function to be run after the move is done
+	@return - the return value of func
+	 */
+	public boolean testMove(Point origLocation, Point location, Function func) {
+		return testMove(encodeMove(Bitboards.square(origLocation.x, origLocation.y),
+				Bitboards.square(location.x, location.y), 0), func);
 	}
 
 	/*
-	Same method as upX; however, checks the knight movement squares
+	Same as testMove with points; however, takes an encoded move which must carry its flags
 	 */
-	public static Point knightMoves(Point p, Function func) {
-		Point p2 = null;
-		for (int x = -2; x <= 2; x++) {
-			for (int y = -2; y <= 2; y++) {
-				if ( (x == 0 || y== 0) || (Math.abs(x) == 1 && Math.abs(y) == 1) || (Math.abs(x) == 2 && Math.abs(y) == 2) )
-					continue;
+	public boolean testMove(int move, Function func) {
+		makeMove(move);
+		boolean result = func.run(Bitboards.fileOf(Move.to(move)), Bitboards.rankOf(Move.to(move)));
+		unmakeMove();
+		return result;
+	}
 
-				p2 = new Point(p.x + x, p.y + y);
-				if (isValid(p2) && !func.run(p2.x, p2.y))
-					return p2;
+	/*
+	----------------------------
+	Private Functions
+	----------------------------
+	 */
 
-			}
-		}
-		return p2;
+	/*
+	A function to determine whether or not the game is impossible to end.
+	 */
+	public boolean inInfiniteGame() {
+		return isInsufficientMaterial();
 	}
 
 	/*
-	General method which tests the exact points passed in
-	@points - an arraylist of all the points to be tested, int he order to test them
-	@func = the function that tests the individual points
-	@return - null if the size of the arraylist passed in is 0
+	----------------------------
+	Draw Detection
+	----------------------------
 	 */
-	public static Point testPoints(Point[] points, Function func) {
-		for (Point p : points) {
-			if (isValid(p) && !func.run(p.x, p.y))
-				return p;
-		}
 
-		if (points.length == 0)
-			return null;
+	/*
+	Determines if the game is drawn by the fifty move rule, threefold repetition or insufficient material. Stalemate
+	is left to isGameOver, and a checkmate on the fiftieth move should be looked for before calling this.
+	 */
+	public boolean isDraw() {
+		return isFiftyMoveDraw() || isThreefoldRepetition() || isInsufficientMaterial();
+	}
 
-		return points[points.length - 1];
+	/*
+	Determines if fifty moves by each side have gone by without a capture or pawn move
+	 */
+	public boolean isFiftyMoveDraw() {
+		return halfmoveClock >= 100;
 	}
 
 	/*
-	Same method as upX; however, checks forward diagonals
+	Determines if the current position has come up at least twice before, with the same side to move, castling rights
+	and en passant capture
 	 */
-	public static Point forwardDiagonals(Point p, Function func) {
-		Point p2 = new Point(p.x - 1, p.y + 1);
-		Point p3 = new Point(p.x + 1, p.y + 1);
-		Point[] arr = {p2, p3};
-		return testPoints(arr, func);
+	public boolean isThreefoldRepetition() {
+		return repetitions() >= 2;
 	}
 
 	/*
-	Same method as upX; however, checks backwards diagonals
+	Determines if the current position has come up before. A search can score this as a draw, as the side which
+	allowed the repetition could repeat it again.
 	 */
-	public static Point backwardsDiagonals(Point p, Function func) {
-		Point p2 = new Point(p.x - 1, p.y - 1);
-		Point p3 = new Point(p.x + 1, p.y - 1);
-		Point[] arr = {p2, p3};
-		return testPoints(arr, func);
+	public boolean isRepetition() {
+		return repetitions() >= 1;
 	}
 
 	/*
-	Same method as upX; however, checks the two squares directly in front
+	Counts the times the current position came up before. Only positions since the last capture or pawn move can
+	match, and only every other one has the same side to move, so the search is short.
 	 */
-	public static Point twoForward(Point p, Function func) {
-		Point p2 = new Point(p.x, p.y + 1);
-		Point p3 = new Point(p.x, p.y + 2);
-		Point[] arr = {p2, p3};
-		return testPoints(arr, func);
+	private int repetitions() {
+		int oldest = Math.max(0, historyCount - halfmoveClock);
+		int count = 0;
+		for (int i = historyCount - 2; i >= oldest; i -= 2)
+			if (history[i] == hash)
+				count++;
+		return count;
 	}
 
 	/*
-	Same method as upX; however, checks the two squares directly behind
+	Determines if neither color has the pieces left to checkmate with, however badly the other plays: a lone king,
+	king and knight, king and bishop, or any number of bishops all on squares of the same color
 	 */
-	public static Point twoBackwards(Point p, Function func) {
-		Point p2 = new Point(p.x, p.y - 1);
-		Point p3 = new Point(p.x, p.y - 2);
-		Point[] arr = {p2, p3};
-		return testPoints(arr, func);
+	public boolean isInsufficientMaterial() {
+		long[] light = pieceBoards[Bitboards.LIGHT], dark = pieceBoards[Bitboards.DARK];
+		if ((light[Bitboards.PAWN] | dark[Bitboards.PAWN] | light[Bitboards.ROOK] | dark[Bitboards.ROOK]
+				| light[Bitboards.QUEEN] | dark[Bitboards.QUEEN]) != 0)
+			return false;
+
+		long knights = light[Bitboards.KNIGHT] | dark[Bitboards.KNIGHT];
+		long bishops = light[Bitboards.BISHOP] | dark[Bitboards.BISHOP];
+		if (Long.bitCount(knights | bishops) <= 1)
+			return true;
+		return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package Game.Exceptions;
+
+public class InvalidFenException extends RuntimeException {
+	public InvalidFenException(String errorMessage) {
+		super(errorMessage);
+	}
+}
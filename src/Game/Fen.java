@@ -0,0 +1,249 @@
+package Game;
+
+import Game.Board.Bitboards;
+import Game.Board.Leapers;
+import Game.Board.Mailbox;
+import Game.Board.Move;
+import Game.Board.Position;
+import Game.Board.Zobrist;
+import Game.Exceptions.InvalidFenException;
+
+/*
+Reads and writes positions in Forsyth-Edwards Notation, i.e.
+	rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1
+the pieces from the eighth rank down (light in upper case), the side to move, the castling rights, the en passant
+square, the halfmove clock and the fullmove number. The two counters may be left off, in which case they are
+taken to be 0 and 1.
+ */
+public final class Fen {
+
+	public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	// the points each color starts with, used to work out the points taken from what is left on the board
+	private static final int STARTING_POINTS = 45;
+
+	private Fen() {}
+
+	/*
+	----------------------------
+	Reading
+	----------------------------
+	 */
+
+	/*
+	Reads a position from a FEN string. Castling rights whose king or rook isn't on its starting square are dropped,
+	and the points taken are worked out from the pieces missing from the board.
+	@param fen - the position in Forsyth-Edwards Notation
+	@return - the position described
+	@throws InvalidFenException - if the string isn't a valid FEN for a position with one king of each color
+	 */
+	public static Position parse(String fen) {
+		if (fen == null)
+			throw new InvalidFenException("Attempt to parse a null FEN");
+		String[] fields = fen.trim().split("\\s+");
+		if (fields.length < 4 || fields.length > 6)
+			throw new InvalidFenException("Expected 4 to 6 fields in FEN: " + fen);
+
+		byte[] squares = parsePlacement(fields[0]);
+
+		int sideToMove;
+		if (fields[1].equals("w"))
+			sideToMove = Bitboards.LIGHT;
+		else if (fields[1].equals("b"))
+			sideToMove = Bitboards.DARK;
+		else
+			throw new InvalidFenException("Invalid side to move in FEN: " + fields[1]);
+
+		int castling = parseCastling(fields[2], squares);
+		int enPassant = parseEnPassant(fields[3], squares, sideToMove);
+		int halfmoveClock = (fields.length > 4) ? parseCounter(fields[4], 0) : 0;
+		int fullmoveNumber = (fields.length > 5) ? parseCounter(fields[5], 1) : 1;
+
+		// the points each color has taken are whatever the other is missing
+		int[] material = new int[ 2 ];
+		for (byte p : squares)
+			if (p != Mailbox.EMPTY)
+				material[Mailbox.color(p)] += Mailbox.points(Mailbox.type(p));
+		int lightPoints = Math.max(0, STARTING_POINTS - material[Bitboards.DARK]);
+		int darkPoints = Math.max(0, STARTING_POINTS - material[Bitboards.LIGHT]);
+
+		return new Position(squares, sideToMove, castling, enPassant, hash(squares, sideToMove, castling, enPassant),
+				lightPoints, darkPoints, halfmoveClock, fullmoveNumber);
+	}
+
+	/*
+	Reads the pieces, checking there are eight ranks of eight squares, one king of each color and no pawns on the
+	first or last rank
+	 */
+	private static byte[] parsePlacement(String placement) {
+		byte[] squares = new byte[ 64 ];
+		String[] ranks = placement.split("/", -1);
+		if (ranks.length != 8)
+			throw new InvalidFenException("Expected 8 ranks in FEN placement: " + placement);
+
+		int[] kings = new int[ 2 ];
+		for (int i = 0; i < 8; i++) {
+			int y = 7 - i, x = 0;
+			for (char c : ranks[i].toCharArray()) {
+				if (c >= '1' && c <= '8') {
+					x += c - '0';
+				} else {
+					int type = Bitboards.typeOf(Character.toUpperCase(c));
+					if (type == -1)
+						throw new InvalidFenException("Invalid piece '" + c + "' in FEN placement: " + placement);
+					if (x > 7)
+						throw new InvalidFenException("Rank " + (y + 1) + " has more than 8 squares in FEN placement: "
+								+ placement);
+					int color = Character.isUpperCase(c) ? Bitboards.LIGHT : Bitboards.DARK;
+					if (type == Bitboards.PAWN && (y == 0 || y == 7))
+						throw new InvalidFenException("Pawn on the first or last rank in FEN placement: " + placement);
+					if (type == Bitboards.KING)
+						kings[color]++;
+					squares[Bitboards.square(x++, y)] = Mailbox.code(type, color);
+				}
+			}
+			if (x != 8)
+				throw new InvalidFenException("Rank " + (y + 1) + " doesn't have 8 squares in FEN placement: "
+						+ placement);
+		}
+
+		if (kings[Bitboards.LIGHT] != 1 || kings[Bitboards.DARK] != 1)
+			throw new InvalidFenException("Expected one king of each color in FEN placement: " + placement);
+		return squares;
+	}
+
+	private static int parseCastling(String field, byte[] squares) {
+		if (field.equals("-"))
+			return 0;
+		int castling = 0;
+		for (char c : field.toCharArray()) {
+			switch (c) {
+				case 'K': castling |= BoardManager.LIGHT_KINGSIDE; break;
+				case 'Q': castling |= BoardManager.LIGHT_QUEENSIDE; break;
+				case 'k': castling |= BoardManager.DARK_KINGSIDE; break;
+				case 'q': castling |= BoardManager.DARK_QUEENSIDE; break;
+				default: throw new InvalidFenException("Invalid castling rights in FEN: " + field);
+			}
+		}
+
+		// a right is only any use with the king and rook still where they started
+		byte lightKing = Mailbox.code(Bitboards.KING, Bitboards.LIGHT);
+		byte darkKing = Mailbox.code(Bitboards.KING, Bitboards.DARK);
+		byte lightRook = Mailbox.code(Bitboards.ROOK, Bitboards.LIGHT);
+		byte darkRook = Mailbox.code(Bitboards.ROOK, Bitboards.DARK);
+		if (squares[4] != lightKing || squares[7] != lightRook)
+			castling &= ~BoardManager.LIGHT_KINGSIDE;
+		if (squares[4] != lightKing || squares[0] != lightRook)
+			castling &= ~BoardManager.LIGHT_QUEENSIDE;
+		if (squares[60] != darkKing || squares[63] != darkRook)
+			castling &= ~BoardManager.DARK_KINGSIDE;
+		if (squares[60] != darkKing || squares[56] != darkRook)
+			castling &= ~BoardManager.DARK_QUEENSIDE;
+		return castling;
+	}
+
+	/*
+	Reads the en passant square, which must be behind a pawn of the side not to move that could have just moved
+	two squares
+	 */
+	private static int parseEnPassant(String field, byte[] squares, int sideToMove) {
+		if (field.equals("-"))
+			return -1;
+		if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h')
+			throw new InvalidFenException("Invalid en passant square in FEN: " + field);
+
+		int rank = (sideToMove == Bitboards.LIGHT) ? 5 : 2;
+		if (field.charAt(1) != '1' + rank)
+			throw new InvalidFenException("En passant square " + field + " is on the wrong rank for the side to move");
+
+		int square = Bitboards.square(field.charAt(0) - 'a', rank);
+		int pawn = (sideToMove == Bitboards.LIGHT) ? square - 8 : square + 8;
+		if (squares[pawn] != Mailbox.code(Bitboards.PAWN, 1 - sideToMove) || squares[square] != Mailbox.EMPTY)
+			throw new InvalidFenException("En passant square " + field + " doesn't follow a double pawn move");
+		return square;
+	}
+
+	private static int parseCounter(String field, int min) {
+		try {
+			int counter = Integer.parseInt(field);
+			if (counter >= min)
+				return counter;
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new InvalidFenException("Invalid move counter in FEN: " + field);
+	}
+
+	/*
+	Works out the Zobrist key of a position the same way BoardManager does, so the en passant square only counts
+	when a pawn of the side to move could take on it
+	 */
+	private static long hash(byte[] squares, int sideToMove, int castling, int enPassant) {
+		long hash = Zobrist.castling(castling);
+		long pawns = 0L;
+		for (int square = 0; square < 64; square++) {
+			byte p = squares[square];
+			if (p == Mailbox.EMPTY)
+				continue;
+			hash ^= Zobrist.piece(Mailbox.color(p), Mailbox.type(p), square);
+			if (p == Mailbox.code(Bitboards.PAWN, sideToMove))
+				pawns |= Bitboards.bit(square);
+		}
+		if (sideToMove == Bitboards.DARK)
+			hash ^= Zobrist.darkToMove();
+		if (enPassant >= 0 && (Leapers.pawnAttacks(1 - sideToMove, enPassant) & pawns) != 0)
+			hash ^= Zobrist.enPassant(Bitboards.fileOf(enPassant));
+		return hash;
+	}
+
+	/*
+	----------------------------
+	Writing
+	----------------------------
+	 */
+
+	/*
+	Writes a position as a FEN string
+	@param position - the position to write
+	@return - the position in Forsyth-Edwards Notation
+	 */
+	public static String format(Position position) {
+		StringBuilder sb = new StringBuilder();
+		for (int y = 7; y >= 0; y--) {
+			int empty = 0;
+			for (int x = 0; x < 8; x++) {
+				byte p = position.pieceAt(x, y);
+				if (p == Mailbox.EMPTY) {
+					empty++;
+					continue;
+				}
+				if (empty > 0)
+					sb.append(empty);
+				empty = 0;
+				char iden = Mailbox.iden(p);
+				sb.append((Mailbox.color(p) == Bitboards.LIGHT) ? iden : Character.toLowerCase(iden));
+			}
+			if (empty > 0)
+				sb.append(empty);
+			if (y > 0)
+				sb.append('/');
+		}
+
+		sb.append(position.getSideToMove() == Bitboards.color(Bitboards.LIGHT) ? " w " : " b ");
+
+		int castling = position.getCastlingRights();
+		if (castling == 0)
+			sb.append('-');
+		if ((castling & BoardManager.LIGHT_KINGSIDE) != 0) sb.append('K');
+		if ((castling & BoardManager.LIGHT_QUEENSIDE) != 0) sb.append('Q');
+		if ((castling & BoardManager.DARK_KINGSIDE) != 0) sb.append('k');
+		if ((castling & BoardManager.DARK_QUEENSIDE) != 0) sb.append('q');
+
+		int enPassant = position.getEnPassantSquare();
+		sb.append(' ').append((enPassant >= 0) ? Move.squareName(enPassant) : "-");
+		sb.append(' ').append(position.getHalfmoveClock());
+		sb.append(' ').append(position.getFullmoveNumber());
+		return sb.toString();
+	}
+
+}
@@ -7,6 +7,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 
 import Func.*;
+import Game.Board.Position;
 import Game.Pieces.Piece;
 
 /*
@@ -208,17 +209,17 @@ public class GameGuiManager extends JPanel implements ActionListener{
 
 	/*
 	Draws the board to the display
-	@param pieces - the board to draw
+	@param position - a snapshot of the board to draw
 	@param whitesTurn - true if it is whites turn, false otherwise.
 	 */
-	public void redrawBoard(Piece[][] pieces, boolean whitesTurn, int lightPoints, int darkPoints) {
+	public void redrawBoard(Position position, boolean whitesTurn) {
 		if (LOGGING)
 			logger.config("Entering redrawBoard in GameGuiManager");
-		boardGuiManager.redrawBoard(pieces, whitesTurn);
+		boardGuiManager.redrawBoard(Piece.fromSquares(position.getSquares()), whitesTurn);
 		if (whitesTurn) {
-			setPoints(darkPoints, lightPoints);
+			setPoints(position.getDarkPoints(), position.getLightPoints());
 		} else
-			setPoints(lightPoints, darkPoints);
+			setPoints(position.getLightPoints(), position.getDarkPoints());
 	}
 
 	/*
@@ -2,6 +2,7 @@ package Game.GameManagers;
 
 import Func.*;
 import Game.*;
+import Game.Board.Move;
 import Game.Exceptions.*;
 import Game.Pieces.*;
 import java.util.logging.*;
@@ -143,6 +144,17 @@ public abstract class GameManager extends JFrame implements GameListener {
 		if (LOGGING)
 			logger.config("Entering interpretMove with " +
 				"from: " + from + " to: " + to);
+		return interpretMove(Move.encode(from, to));
+	}
+
+	/*
+	Same as interpretMove with points; however, takes a move encoded by Move
+	@param move - the move to make
+	@return a boolean representing whether or not the move was successful
+	 */
+	protected boolean interpretMove(int move) {
+		Point from = Move.fromPoint(move);
+		Point to = Move.toPoint(move);
 		try {
 			// determines whether or not the move is of the right color
 			if (!boardManager.colorMatches(from, color(whitesTurn))) {
@@ -152,7 +164,7 @@ public abstract class GameManager extends JFrame implements GameListener {
 			}
 
 			// performs the move on the board
-			boolean gameOver = boardManager.performMove(from, to);
+			boolean gameOver = boardManager.performMove(move);
 			promotePawn(to);
 
 			// if we get here, then the move is definitely valid and the board (and ui) has been updated
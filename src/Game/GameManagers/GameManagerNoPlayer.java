@@ -7,10 +7,23 @@ import java.awt.Point;
 
 public class GameManagerNoPlayer extends GameManager {
 
-	Player p1 = new God(0.15, 0.15, 0.7);
+	Player p1;
 
-	public GameManagerNoPlayer(boolean isVisible) {
+	/*
+	@param isVisible - whether the game is shown
+	@param player - the computer player which makes every move, for both colors
+	 */
+	public GameManagerNoPlayer(boolean isVisible, Player player) {
 		super(isVisible);
+		p1 = player;
+	}
+
+	public GameManagerNoPlayer(boolean isVisible) {
+		this(isVisible, new God(0.15, 0.15, 0.7));
+	}
+
+	public GameManagerNoPlayer(Player player) {
+		this(true, player);
 	}
 
 	public GameManagerNoPlayer() {
@@ -20,22 +33,22 @@ public class GameManagerNoPlayer extends GameManager {
 	@Override
 	public void actionPerformed(String actionCode) {
 		PieceColor color = color(isWhitesTurn());
-		Tuple<Point, Point> move = p1.determineMove(boardManager.cloneBoard(), boardManager, color);
-		boolean success = interpretMove(move.x, move.y);
+		int move = p1.determineMove(boardManager.getPosition(), boardManager, color);
+		boolean success = interpretMove(move);
 	}
 
 	@Override
 	public void redrawBoard() {
-		gameGuiManager.redrawBoard(boardManager.cloneBoard(), true,
-				boardManager.getLightPoints(), boardManager.getDarkPoints());
+		gameGuiManager.redrawBoard(boardManager.getPosition(), true);
 	}
 
 	@Override
-	public boolean interpretMove(Point from, Point to) {
-		boolean returnValue = super.interpretMove(from, to);
+	public boolean interpretMove(int move) {
+		boolean returnValue = super.interpretMove(move);
 
-		// Checks if we are in the possibility of an infinite repetition.
-		if (boardManager.inInfiniteGame()) {
+		// Ends the game as soon as it is drawn by repetition, the fifty move rule or insufficient material, unless
+		// the move already ended it with a checkmate or stalemate
+		if (returnValue && boardManager.isDraw() && boardManager.hasLegalMove(boardManager.getSideToMove())) {
 			handleGameOver(true);		// End the game
 		}
 		return returnValue;
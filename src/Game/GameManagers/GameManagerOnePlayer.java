@@ -1,30 +1,98 @@
 package Game.GameManagers;
 
 import Func.*;
+import Game.BoardManager;
+import Game.Pieces.*;
+import Game.Players.*;
 
+import javax.swing.SwingWorker;
 import java.awt.*;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.*;
 
-public class GameManagerOnePlayer extends GameManager {
+/*
+A game between a person playing light, who moves by clicking on the board as in a two player game, and a computer
+player playing dark, which replies as soon as the person's move is made. The computer thinks on a background thread
+with its own copy of the board, so the window keeps redrawing while it does, and closing the window stops it.
+ */
+public class GameManagerOnePlayer extends GameManagerTwoPlayer {
 
 	private static Logger logger = Logger.getLogger("GameManagerOnePlayer");
 	private static final boolean LOGGING = Consts.LOGGING;
 
+	// the color the computer plays
+	private static final PieceColor COMPUTER_COLOR = PieceColor.dark;
+
+	private final Player computer;
+
+	/*
+	@param computer - the player which makes dark's moves
+	 */
+	public GameManagerOnePlayer(Player computer) {
+		super();
+		this.computer = computer;
+	}
+
+	public GameManagerOnePlayer() {
+		this(new SearchPlayer());
+	}
+
 	@Override
 	public void actionPerformed(String actionCode) {
-		if (LOGGING)
-			logger.warning("Functionality of actionPerformed in GameManagerOnePlayer is unsupported");
+		if (!isWhitesTurn()) {
+			if (LOGGING)
+				logger.config("Ignoring input while the computer is to move");
+			return;
+		}
+		super.actionPerformed(actionCode);
+
+		// once the person's move has gone through (and didn't end the game), the computer replies
+		if (!isWhitesTurn() && isDisplayable())
+			startComputerMove();
+	}
+
+	/*
+	Has the computer work out its move in the background, then plays it back on the event thread
+	 */
+	private void startComputerMove() {
+		BoardManager copy = new BoardManager(boardManager);
+		new SwingWorker<Integer, Void>() {
+			@Override
+			protected Integer doInBackground() {
+				return computer.determineMove(copy.getPosition(), copy, COMPUTER_COLOR);
+			}
+
+			@Override
+			protected void done() {
+				if (!isDisplayable())
+					return;		// the game was closed while the computer was thinking
+				try {
+					interpretMove(get());
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+					if (LOGGING)
+						logger.warning("The computer player failed to find a move.");
+				}
+			}
+		}.execute();
+	}
+
+	@Override
+	public void dispose() {
+		computer.stop();
+		super.dispose();
 	}
 
 	@Override
 	public void redrawBoard() {
-		gameGuiManager.redrawBoard(boardManager.cloneBoard(), true,
-				boardManager.getLightPoints(), boardManager.getDarkPoints());
+		gameGuiManager.redrawBoard(boardManager.getPosition(), true);
 	}
 
 	@Override
 	public void promotePawn(Point at) {
-		if (LOGGING)
-			logger.warning("Functionality of promotePawn in GameMAnagerOnePlayer is unsupported");
+		if (isWhitesTurn())
+			boardManager.promotePawn(at);
+		else	// the computer's moves carry their promotion already, this only covers a move that didn't
+			boardManager.promotePawn(at, BoardManager.QUEEN_IDENTIFIER);
 	}
 }
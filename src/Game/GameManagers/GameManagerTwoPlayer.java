@@ -37,8 +37,7 @@ public class GameManagerTwoPlayer extends GameManager{
 
 	@Override
 	public void redrawBoard() {
-		gameGuiManager.redrawBoard(boardManager.cloneBoard(), isWhitesTurn(),
-				boardManager.getLightPoints(), boardManager.getDarkPoints());
+		gameGuiManager.redrawBoard(boardManager.getPosition(), isWhitesTurn());
 	}
 
 	@Override
@@ -0,0 +1,203 @@
+package Game;
+
+import Game.Board.Bitboards;
+import Game.Board.Move;
+import Game.Board.MoveList;
+import Game.Pieces.PieceColor;
+
+/*
+Hands out the legal moves of a position one at a time in the order a search wants to try them:
+	(1) the hash move, the best move found the last time the position was searched
+	(2) captures which don't lose material, most valuable victim first and least valuable attacker first among
+		equal victims
+	(3) the killer moves, quiet moves which caused a cut off in a sibling position
+	(4) the remaining quiet moves
+	(5) captures which lose material once the recaptures are played out (see BoardManager.staticExchange)
+Each stage is only generated once the one before it runs out, so a search which cuts off on the hash move or a
+capture never pays for generating the quiet moves. A picker can be reused for every position visited at a ply
+by calling reset.
+ */
+public class MovePicker {
+
+	// the stages, in the order they are visited
+	private static final int HASH = 0;
+	private static final int GENERATE_CAPTURES = 1;
+	private static final int CAPTURES = 2;
+	private static final int FIRST_KILLER = 3;
+	private static final int SECOND_KILLER = 4;
+	private static final int GENERATE_QUIETS = 5;
+	private static final int QUIETS = 6;
+	private static final int BAD_CAPTURES = 7;
+	private static final int DONE = 8;
+
+	private final BoardManager manager;
+
+	private PieceColor color;
+	private int hashMove;
+	private int firstKiller;
+	private int secondKiller;
+
+	private int stage = DONE;
+
+	// true to hand out only the captures which don't lose material, as a quiescence search wants
+	private boolean capturesOnly = false;
+
+	// the moves of the current stage, their scores, and the index of the next one to hand out
+	private final MoveList moves = new MoveList();
+	private final int[] scores = new int[ Move.MAX_MOVES ];
+	private int index = 0;
+
+	// the captures put off until after the quiet moves, in the order they were picked
+	private final int[] badCaptures = new int[ Move.MAX_MOVES ];
+	private int badCaptureCount = 0;
+
+	public MovePicker(BoardManager manager) {
+		this.manager = manager;
+	}
+
+	public MovePicker(BoardManager manager, PieceColor color, int hashMove, int firstKiller, int secondKiller) {
+		this(manager);
+		reset(color, hashMove, firstKiller, secondKiller);
+	}
+
+	/*
+	Starts handing out the moves for a new position
+	@param color - the color to move
+	@param hashMove - the move to try first, or Move.NONE
+	@param firstKiller - a quiet move to try after the captures, or Move.NONE
+	@param secondKiller - another quiet move to try after the first, or Move.NONE
+	 */
+	public void reset(PieceColor color, int hashMove, int firstKiller, int secondKiller) {
+		this.color = color;
+		this.hashMove = isPlayable(hashMove) ? hashMove : Move.NONE;
+		this.firstKiller = firstKiller;
+		this.secondKiller = secondKiller;
+		capturesOnly = false;
+		stage = HASH;
+	}
+
+	/*
+	Starts handing out only the captures of a new position which don't lose material, best first
+	@param color - the color to move
+	 */
+	public void resetCaptures(PieceColor color) {
+		reset(color, Move.NONE, Move.NONE, Move.NONE);
+		capturesOnly = true;
+	}
+
+	/*
+	Returns the next move to try, or Move.NONE once every legal move has been handed out. No move is handed
+	out twice.
+	 */
+	public int next() {
+		while (true) {
+			switch (stage) {
+				case HASH:
+					stage = GENERATE_CAPTURES;
+					if (hashMove != Move.NONE)
+						return hashMove;
+					break;
+				case GENERATE_CAPTURES:
+					manager.generateLegalMoves(color, BoardManager.GEN_CAPTURES, moves);
+					scoreCaptures();
+					index = 0;
+					badCaptureCount = 0;
+					stage = CAPTURES;
+					break;
+				case CAPTURES:
+					while (index < moves.size()) {
+						int move = pickBest();
+						if (move == hashMove)
+							continue;
+						if (manager.staticExchange(move) < 0)
+							badCaptures[badCaptureCount++] = move;
+						else
+							return move;
+					}
+					stage = capturesOnly ? DONE : FIRST_KILLER;
+					break;
+				case FIRST_KILLER:
+					stage = SECOND_KILLER;
+					if (isUsableKiller(firstKiller))
+						return firstKiller;
+					break;
+				case SECOND_KILLER:
+					stage = GENERATE_QUIETS;
+					if (secondKiller != firstKiller && isUsableKiller(secondKiller))
+						return secondKiller;
+					break;
+				case GENERATE_QUIETS:
+					manager.generateLegalMoves(color, BoardManager.GEN_QUIETS, moves);
+					index = 0;
+					stage = QUIETS;
+					break;
+				case QUIETS:
+					while (index < moves.size()) {
+						int move = moves.get(index++);
+						if (move != hashMove && move != firstKiller && move != secondKiller)
+							return move;
+					}
+					index = 0;
+					stage = BAD_CAPTURES;
+					break;
+				case BAD_CAPTURES:
+					if (index < badCaptureCount)
+						return badCaptures[index++];
+					stage = DONE;
+					break;
+				default:
+					return Move.NONE;
+			}
+		}
+	}
+
+	/*
+	Scores the captures by most valuable victim, then least valuable attacker
+	 */
+	private void scoreCaptures() {
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			int victim = Move.isEnPassant(move) ? Bitboards.PAWN : manager.getPieceType(Move.to(move));
+			int attacker = manager.getPieceType(Move.from(move));
+			scores[i] = victim * Bitboards.PIECE_TYPES + (Bitboards.KING - attacker);
+		}
+	}
+
+	/*
+	Swaps the best scoring move left in the stage to the front of what is left, and hands it out
+	 */
+	private int pickBest() {
+		int best = index;
+		for (int i = index + 1; i < moves.size(); i++)
+			if (scores[i] > scores[best])
+				best = i;
+		moves.swap(index, best);
+		int temp = scores[index];
+		scores[index] = scores[best];
+		scores[best] = temp;
+		return moves.get(index++);
+	}
+
+	/*
+	Determines if a killer can be tried in this position. Killers come from other positions, so they must be
+	checked to be legal here, and captures are skipped as they have already been handed out.
+	 */
+	private boolean isUsableKiller(int move) {
+		return move != Move.NONE && move != hashMove && !Move.isCapture(move) && isPlayable(move);
+	}
+
+	/*
+	Determines if a move from another position can be played in this one, with the same flags it was encoded with
+	 */
+	private boolean isPlayable(int move) {
+		if (move == Move.NONE)
+			return false;
+		int from = Move.from(move), to = Move.to(move);
+		if (manager.getPieceColor(from) != Bitboards.colorIndex(color)
+				|| manager.getPieceType(to) == Bitboards.KING)
+			return false;
+		return manager.encodeMove(from, to, Move.promotion(move)) == move
+				&& manager.isValidMove(move) && manager.isLegalMove(move);
+	}
+
+}
@@ -0,0 +1,324 @@
+package Game;
+
+import Game.Board.Move;
+import Game.Board.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+Counts the leaf nodes of the legal move tree to a fixed depth (perft), to check the move generation against known
+counts and to measure how fast it is. A Perft walks a single board, so like BoardManager it is confined to one
+thread; perftParallel gives each root move to a worker with its own copy of the board.
+Run from the command line:
+	java Game.Perft [depth] [-fen <fen>] [-divide] [-hash <mb>] [-threads <n>]
+	java Game.Perft -suite [-hash <mb>] [-threads <n>]
+ */
+public class Perft {
+
+	private static final int MAX_DEPTH = 32;
+
+	// one list of moves for each ply, so the walk never allocates
+	private final MoveList[] lists = MoveList.forPlies(MAX_DEPTH + 1);
+
+	// the table of subtree counts already found, or null to count every subtree
+	private final Table table;
+
+	public Perft() {
+		this(null);
+	}
+
+	public Perft(Table table) {
+		this.table = table;
+	}
+
+	/*
+	----------------------------
+	Counting
+	----------------------------
+	 */
+
+	/*
+	Counts the leaf nodes to the given depth
+	@param board - the board to count from, which is left as it was found
+	@param depth - the number of plies to walk
+	@return - the number of positions reached at the given depth
+	 */
+	public long perft(BoardManager board, int depth) {
+		if (depth > MAX_DEPTH)
+			throw new IllegalArgumentException("Perft depth is limited to " + MAX_DEPTH);
+		return perft(board, depth, 0);
+	}
+
+	private long perft(BoardManager board, int depth, int ply) {
+		if (depth == 0)
+			return 1;
+
+		// a count already in the table saves generating the moves at all
+		if (table != null && depth >= 2) {
+			long nodes = table.probe(board.getHash(), depth);
+			if (nodes >= 0)
+				return nodes;
+		}
+
+		MoveList moves = lists[ply];
+		board.generateLegalMoves(board.getSideToMove(), moves);
+		if (depth == 1)
+			return moves.size();	// the leaves don't need to be visited to be counted
+
+		long nodes = 0;
+		for (int i = 0; i < moves.size(); i++) {
+			board.makeMove(moves.get(i));
+			nodes += perft(board, depth - 1, ply + 1);
+			board.unmakeMove();
+		}
+
+		if (table != null)
+			table.store(board.getHash(), depth, nodes);
+		return nodes;
+	}
+
+	/*
+	Counts the leaf nodes under each root move separately, which narrows down where a wrong count comes from
+	@param board - the board to count from, which is left as it was found
+	@param depth - the number of plies to walk, including the root move
+	@return - the root moves and their counts, in generation order
+	 */
+	public List<Division> divide(BoardManager board, int depth) {
+		List<Division> divisions = new ArrayList<>();
+		int[] moves = board.generateLegalMoves(board.getSideToMove());
+		for (int move : moves) {
+			board.makeMove(move);
+			divisions.add(new Division(move, perft(board, depth - 1)));
+			board.unmakeMove();
+		}
+		return divisions;
+	}
+
+	/*
+	Same as perft; however, the subtrees of the root moves are counted on several threads at once. Each worker
+	counts on its own copy of the board, and they all share the table if one is given (it is safe to share).
+	@param board - the board to count from, which isn't changed
+	@param depth - the number of plies to walk
+	@param threads - the number of workers to use
+	@param table - the table to share between the workers, or null to count every subtree
+	@return - the number of positions reached at the given depth
+	 */
+	public static long perftParallel(BoardManager board, int depth, int threads, Table table)
+			throws InterruptedException {
+		if (depth < 2)
+			return new Perft(table).perft(board, depth);
+
+		int[] moves = board.generateLegalMoves(board.getSideToMove());
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> counts = new ArrayList<>();
+			for (int move : moves) {
+				BoardManager copy = new BoardManager(board);	// copied here, as the board belongs to this thread
+				counts.add(workers.submit(() -> {
+					copy.makeMove(move);
+					return new Perft(table).perft(copy, depth - 1);
+				}));
+			}
+
+			long nodes = 0;
+			for (Future<Long> count : counts)
+				nodes += count.get();
+			return nodes;
+		} catch (java.util.concurrent.ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			workers.shutdown();
+		}
+	}
+
+	/*
+	----------------------------
+	Reference Positions
+	----------------------------
+	 */
+
+	/*
+	A position with its known perft counts, counts[d - 1] being the count to depth d
+	 */
+	public static class Reference {
+
+		final public String name;
+		final public String fen;
+		final public long[] counts;
+
+		public Reference(String name, String fen, long... counts) {
+			this.name = name;
+			this.fen = fen;
+			this.counts = counts;
+		}
+
+		/*
+		Creates a board set up in this position
+		 */
+		public BoardManager create() {
+			return new BoardManager(fen);
+		}
+	}
+
+	// the standard reference positions and counts, which every change to move generation should still reproduce.
+	// Between them they cover castling through and out of check, en passant pins, and every kind of promotion.
+	public static final Reference[] SUITE = {
+			new Reference("Start position", Fen.START,
+					20, 400, 8902, 197281, 4865609, 119060324),
+			new Reference("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+					48, 2039, 97862, 4085603, 193690690),
+			new Reference("Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+					14, 191, 2812, 43238, 674624, 11030083),
+			new Reference("Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+					6, 264, 9467, 422333, 15833292),
+			new Reference("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+					44, 1486, 62379, 2103487, 89941194),
+			new Reference("Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+					46, 2079, 89890, 3894594, 164075551),
+	};
+
+	/*
+	Runs every reference position to the depth given, printing each count, whether it matched and the speed
+	@param maxDepth - the deepest count to run for each position
+	@return - true if every count matched
+	 */
+	public static boolean runSuite(int maxDepth, int threads, Table table) throws InterruptedException {
+		boolean passed = true;
+		for (Reference reference : SUITE) {
+			for (int depth = 1; depth <= Math.min(maxDepth, reference.counts.length); depth++) {
+				BoardManager board = reference.create();
+				long start = System.nanoTime();
+				long nodes = (threads > 1) ? perftParallel(board, depth, threads, table)
+						: new Perft(table).perft(board, depth);
+				long elapsed = System.nanoTime() - start;
+				boolean matched = nodes == reference.counts[depth - 1];
+				passed &= matched;
+				System.out.println(reference.name + " depth " + depth + ": " + nodes +
+						(matched ? " ok" : " expected " + reference.counts[depth - 1]) + " " + report(nodes, elapsed));
+			}
+		}
+		return passed;
+	}
+
+	/*
+	----------------------------
+	Helpers
+	----------------------------
+	 */
+
+	/*
+	A root move with the number of leaf nodes under it
+	 */
+	public static class Division {
+
+		final public int move;
+		final public long nodes;
+
+		public Division(int move, long nodes) {
+			this.move = move;
+			this.nodes = nodes;
+		}
+
+		@Override
+		public String toString() {
+			return Move.toString(move) + ": " + nodes;
+		}
+	}
+
+	/*
+	A fixed size table of subtree counts keyed by Zobrist key and depth. Entries are replaced whenever two land on
+	the same slot. Each entry stores its key xor'd with its count, so a read can tell when another thread
+	half-wrote the entry and ignore it, which makes the table safe to share without locking.
+	 */
+	public static class Table {
+
+		private final long[] checks;
+		private final long[] counts;
+		private final int mask;
+
+		/*
+		Creates a table using about the given number of megabytes
+		 */
+		public Table(int megabytes) {
+			long slots = Long.highestOneBit(Math.max(1L, ((long)megabytes << 20) / 16));
+			int entries = (int)Math.min(slots, 1L << 30);		// arrays are indexed by int
+			checks = new long[ entries ];
+			counts = new long[ entries ];
+			mask = entries - 1;
+		}
+
+		/*
+		Returns the count stored for the position at the given depth, or -1 if there is none
+		 */
+		public long probe(long hash, int depth) {
+			long key = key(hash, depth);
+			int index = (int)key & mask;
+			long count = counts[index];
+			return ((checks[index] ^ count) == key && count != 0) ? count : -1;
+		}
+
+		public void store(long hash, int depth, long nodes) {
+			long key = key(hash, depth);
+			int index = (int)key & mask;
+			counts[index] = nodes;
+			checks[index] = key ^ nodes;
+		}
+
+		// mixes the depth into the key, so the same position at different depths takes different slots
+		private static long key(long hash, int depth) {
+			return hash ^ (depth * 0x9E3779B97F4A7C15L);
+		}
+	}
+
+	private static String report(long nodes, long nanos) {
+		double seconds = nanos / 1e9;
+		return String.format("(%.3f s, %.0f nodes/s)", seconds, nodes / Math.max(seconds, 1e-9));
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		java.util.logging.LogManager.getLogManager().reset();		// the board's logging would swamp the counts
+
+		int depth = 5;
+		boolean divide = false, suite = false;
+		String fen = Fen.START;
+		int threads = 1;
+		Table table = null;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "-fen": fen = args[++i]; break;
+				case "-divide": divide = true; break;
+				case "-suite": suite = true; break;
+				case "-hash": table = new Table(Integer.parseInt(args[++i])); break;
+				case "-threads": threads = Integer.parseInt(args[++i]); break;
+				default: depth = Integer.parseInt(args[i]);
+			}
+		}
+
+		if (suite) {
+			boolean passed = runSuite(depth, threads, table);
+			System.out.println(passed ? "All counts matched" : "Some counts did not match");
+			if (!passed)
+				System.exit(1);
+			return;
+		}
+
+		BoardManager board = new BoardManager(fen);
+		long start = System.nanoTime();
+		long nodes;
+		if (divide) {
+			nodes = 0;
+			for (Division division : new Perft(table).divide(board, depth)) {
+				System.out.println(division);
+				nodes += division.nodes;
+			}
+		} else {
+			nodes = (threads > 1) ? perftParallel(board, depth, threads, table) : new Perft(table).perft(board, depth);
+		}
+		System.out.println("Nodes: " + nodes + " " + report(nodes, System.nanoTime() - start));
+	}
+
+}
@@ -1,37 +1,53 @@
 package Game.Pieces;
 
+import Game.Board.Bitboards;
+import Game.Board.Mailbox;
+
 import java.awt.Point;
 
 public class ConstPiece {
 
-	Piece p;
+	final private byte code;
+	final private int x;
+	final private int y;
+
+	/*
+	Creates a read only view of a piece on the board
+	@param code - the piece, encoded by Mailbox
+	@param x, y - the location of the piece
+	 */
+	public ConstPiece(byte code, int x, int y) {
+		this.code = code;
+		this.x = x;
+		this.y = y;
+	}
 
 	public ConstPiece(Piece p) {
-		this.p = p;
+		this(Mailbox.code(Bitboards.typeOf(p.iden()), Bitboards.colorIndex(p.getColor())), p.getX(), p.getY());
 	}
 
 	public PieceColor getColot() {
-		return p.getColor();
+		return Bitboards.color(Mailbox.color(code));
 	}
 
 	public boolean colorMatches(PieceColor color){
-		return p.colorMatches(color);
+		return getColot() == color;
 	}
 
 	public char iden() {
-		return p.iden();
+		return Mailbox.iden(code);
 	}
 
 	public Point getPoint() {
-		return (Point)p.getPoint().clone();
+		return new Point(x, y);
 	}
 
 	public String toString() {
-		return p.toString();
+		return Character.toString(iden());
 	}
 
 	public int getValue() {
-		return p.points;
+		return Mailbox.points(Mailbox.type(code));
 	}
 
 }
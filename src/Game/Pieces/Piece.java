@@ -1,6 +1,8 @@
 package Game.Pieces;
 
 import Func.*;
+import Game.Board.Bitboards;
+import Game.Board.Mailbox;
 
 import javax.imageio.*;
 import java.awt.*;
@@ -143,6 +145,38 @@ public abstract class Piece {
 				y * Piece.SPRITE_LENGTH, Piece.SPRITE_LENGTH, Piece.SPRITE_LENGTH));
 	}
 
+	/*
+	Creates the piece for a square of a board encoded by Mailbox
+	@param code - the piece, encoded by Mailbox
+	@param x, y - the location of the piece
+	@return - the piece, or null if the square is empty
+	 */
+	public static Piece fromCode(byte code, int x, int y) {
+		PieceColor color = Bitboards.color(Mailbox.color(code));
+		switch (Mailbox.type(code)) {
+			case Bitboards.PAWN: return new Pawn(color, x, y);
+			case Bitboards.KNIGHT: return new Knight(color, x, y);
+			case Bitboards.BISHOP: return new Bishop(color, x, y);
+			case Bitboards.ROOK: return new Rook(color, x, y);
+			case Bitboards.QUEEN: return new Queen(color, x, y);
+			case Bitboards.KING: return new King(color, x, y);
+		}
+		return null;
+	}
+
+	/*
+	Creates the pieces for a whole board encoded by Mailbox, so it can be drawn
+	@param squares - the board, indexed by square
+	@return - the pieces indexed by [x][y], with null for the empty squares
+	 */
+	public static Piece[][] fromSquares(byte[] squares) {
+		Piece[][] board = new Piece[ 8 ][ 8 ];
+		for (int square = 0; square < 64; square++)
+			board[Bitboards.fileOf(square)][Bitboards.rankOf(square)] =
+					fromCode(squares[square], Bitboards.fileOf(square), Bitboards.rankOf(square));
+		return board;
+	}
+
 	@Override
 	public String toString() {
 		return Character.toString(iden());
@@ -2,10 +2,11 @@ package Game.Players;
 
 import Func.*;
 import Game.*;
+import Game.Board.Move;
+import Game.Board.MoveList;
+import Game.Board.Position;
 import Game.Pieces.*;
-import java.awt.Point;
 import Game.Pieces.PieceColor;
-import java.util.ArrayList;
 import java.util.logging.*;
 
 public class God extends Player{
@@ -35,10 +36,10 @@ public class God extends Player{
 	}
 
 	@Override
-	public Tuple<Point, Point> determineMove(Piece[][] board, BoardManager manager, PieceColor color) {
+	public int determineMove(Position position, BoardManager manager, PieceColor color) {
 
 		// empties out the move container
-		move = null;
+		move = Move.NONE;
 		boolean done;
 		switch(phase) {
 			case 0:
@@ -57,17 +58,20 @@ public class God extends Player{
 		return move;
 	}
 
-	Tuple<Point, Point> move;
+	int move;
+
+	// reusable buffer for the moves being scored
+	private final MoveList moves = new MoveList();
 
 	private boolean baseBehaviour(BoardManager manager, PieceColor color) {
-		ArrayList<Tuple<Point, Point>> moves = manager.findAllMoves(color);
+		manager.generateLegalMoves(color, moves);
 		double maximum = -1;
-		for (Tuple<Point, Point> t : moves) {
-			if (!manager.canMove(t.x, t.y)) continue;
-			double score = scoreMove(t, manager, color);
+		for (int i = 0; i < moves.size(); i++) {
+			int m = moves.get(i);
+			double score = scoreMove(m, manager, color);
 			if (score > maximum) {
 				maximum = score;
-				move = t;
+				move = m;
 			}
 		}
 		return false;
@@ -75,24 +79,21 @@ public class God extends Player{
 
 	boolean moveTies = false;
 
-	private Tuple<Point, Point> getRandomMove(BoardManager manager, PieceColor color) {
-		ArrayList<Tuple<Point, Point>> list = manager.findAllMoves(color);
-		Tuple<Point, Point> move = list.get(MiscFunc.getRandom(0, list.size() - 1));
-		while (!manager.isValidMove(move.x, move.y) || !manager.isLegalMove(move.x, move.y))
-			move = list.get(MiscFunc.getRandom(0, list.size() - 1));
-		return move;
+	private int getRandomMove(BoardManager manager, PieceColor color) {
+		int[] list = manager.generateLegalMoves(color);
+		return list[MiscFunc.getRandom(0, list.length - 1)];
 	}
 
 	/*
 	 Determines a numerical score for a potential move on the board given.
 	 @parameters
-	 	move: a Tuple representing the move
+	 	move: the encoded move
 	 	board: the current board state
 	 	BoardManager: the current BoardManager
 	 	PieceColor: the piece color for this player
 	 @return: a double which represents the quality of the move
 	*/
-	private double scoreMove(Tuple<Point, Point> move, BoardManager manager, PieceColor color) {
+	private double scoreMove(int move, BoardManager manager, PieceColor color) {
 
 		Function f = new Function() {
 
@@ -108,9 +109,9 @@ public class God extends Player{
 			}
 		};
 
-		manager.testMove(move.x, move.y, f);
+		manager.testMove(move, f);
 
-		takeScore = scoreTaking(manager, color, move.x, move.y);
+		takeScore = scoreTaking(manager, color, move);
 
 		if (threatScore == -1 || defenseScore == -1) {
 			if (LOGGING) {
@@ -145,13 +146,7 @@ public class God extends Player{
 	@return: a double which represents the estimated quality of the threats in this position
 	 */
 	private double scoreThreats(BoardManager manager, PieceColor color) {
-		ArrayList<Tuple<Point, Point>> takes = manager.determineThreats(color);
-
-		int sum = 0;
-		for (Tuple<Point, Point> t : takes) {
-			ConstPiece p = manager.getPiece(t.y);
-			sum += p.getValue();
-		}
+		int sum = manager.threatenedPoints(color);
 
 		int totalPoints = (color == PieceColor.light ? manager.remainingLightPoints() : manager.remainingDarkPoints());
 
@@ -172,20 +167,21 @@ public class God extends Player{
 	}
 
 	/*
-	Scores the value from taking the given pieces
+	Scores the value from taking the given pieces, playing out the recaptures on the square so that a trade which
+	loses material scores below one which wins it
 	@parameters
 		manager: the board manager for this player
 		color: the color for this player
 	@return: a double representing the quality fo the defense in this position
 	 */
-	private double scoreTaking(BoardManager manager, PieceColor color, Point from, Point to) {
-		ConstPiece p1 = manager.getPiece(from);
-		ConstPiece p2 = manager.getPiece(to);
+	private double scoreTaking(BoardManager manager, PieceColor color, int move) {
+		ConstPiece p1 = manager.getPiece(Move.from(move));
+		ConstPiece p2 = manager.getPiece(Move.to(move));
 		if (p2 == null || !p1.colorMatches(color) || p2.colorMatches(color)) return 0;
 
-		double diff = p1.getValue() - p2.getValue();
+		double diff = manager.staticExchange(move) / 100.0;	// in pawns
 		if (diff == 0) return 0;
-		return (diff + 8) / (double)16;
+		return (Math.max(-8, Math.min(8, diff)) + 8) / (double)16;
 
 	}
 
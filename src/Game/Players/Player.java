@@ -1,13 +1,24 @@
 package Game.Players;
 
-import java.awt.Point;
-import Func.Tuple;
-import Game.Pieces.Piece;
 import Game.BoardManager;
+import Game.Board.Position;
 import Game.Pieces.PieceColor;
 
 abstract public class Player {
 
-	abstract public Tuple<Point, Point> determineMove(Piece[][] board, BoardManager manager, PieceColor color);
+	/*
+	Determines the move to make for the given color
+	@param position - a snapshot of the board
+	@param manager - the manager of the board
+	@param color - the color to move
+	@return - the move to make, encoded by Game.Board.Move
+	 */
+	abstract public int determineMove(Position position, BoardManager manager, PieceColor color);
+
+	/*
+	Asks the player to stop thinking and return its move as soon as it can. This may be called from any thread;
+	players which answer straight away can leave it alone.
+	 */
+	public void stop() {}
 
 }
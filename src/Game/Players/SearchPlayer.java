@@ -0,0 +1,92 @@
+package Game.Players;
+
+import Func.*;
+import Game.BoardManager;
+import Game.Board.Position;
+import Game.Pieces.PieceColor;
+import Game.Search.Evaluation;
+import Game.Search.IterativeDeepening;
+import Game.Search.LazySmp;
+import Game.Search.PieceSquareEvaluation;
+import Game.Search.SearchLimits;
+import Game.Search.SearchResult;
+import Game.Search.TranspositionTable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.*;
+
+/*
+A computer player which picks its moves with an iterative deepening alpha-beta search. It searches until its time
+for the move runs out (or it is stopped), and plays the best move it has found by then. The transposition table is
+kept from move to move, so what was found while working out one move helps with the next. Given more than one
+thread, it searches with all of them at once (see LazySmp).
+ */
+public class SearchPlayer extends Player {
+
+	// the time to spend on each move when none is given, in milliseconds
+	public static final long DEFAULT_MILLIS_PER_MOVE = 1000;
+
+	// the memory for the transposition table when none is given, in megabytes
+	public static final int DEFAULT_HASH_MEGABYTES = 32;
+
+	private final Evaluation evaluation;
+	private final long millisPerMove;
+	private final long maxNodes;
+	private final int maxDepth;
+	private final TranspositionTable table;
+
+	// the threads to search with, or null to search on the caller's thread alone
+	private final LazySmp smp;
+
+	// set to stop the search running for the current move
+	private final AtomicBoolean stop = new AtomicBoolean();
+
+	private static final Logger logger = Logger.getLogger("SearchPlayer");
+	private static final boolean LOGGING = Consts.LOGGING;
+
+	/*
+	@param evaluation - how the search scores positions
+	@param millisPerMove - the time to spend on each move, in milliseconds
+	@param maxNodes - the most nodes to search for each move
+	@param maxDepth - the deepest to search for each move
+	@param hashMegabytes - the memory for the transposition table, in megabytes
+	@param threads - the number of threads to search with
+	 */
+	public SearchPlayer(Evaluation evaluation, long millisPerMove, long maxNodes, int maxDepth, int hashMegabytes,
+						int threads) {
+		this.evaluation = evaluation;
+		this.millisPerMove = millisPerMove;
+		this.maxNodes = maxNodes;
+		this.maxDepth = maxDepth;
+		this.table = new TranspositionTable(hashMegabytes);
+		this.smp = (threads > 1) ? new LazySmp(evaluation, table, threads) : null;
+	}
+
+	public SearchPlayer(Evaluation evaluation, long millisPerMove) {
+		this(evaluation, millisPerMove, Long.MAX_VALUE, SearchLimits.MAX_DEPTH, DEFAULT_HASH_MEGABYTES, 1);
+	}
+
+	public SearchPlayer() {
+		this(new PieceSquareEvaluation(), DEFAULT_MILLIS_PER_MOVE);
+	}
+
+	@Override
+	public int determineMove(Position position, BoardManager manager, PieceColor color) {
+		stop.set(false);
+		table.newSearch();
+		SearchLimits limits = new SearchLimits(System.currentTimeMillis() + millisPerMove, maxNodes, maxDepth);
+
+		// search on a copy, so the game's board is never left mid-search
+		BoardManager board = new BoardManager(manager);
+		SearchResult result = (smp != null) ? smp.search(board, limits, stop)
+				: new IterativeDeepening(board, evaluation, table).search(limits, stop);
+		if (LOGGING)
+			logger.info("Playing " + result);
+		return result.move;
+	}
+
+	@Override
+	public void stop() {
+		stop.set(true);
+	}
+
+}
@@ -0,0 +1,323 @@
+package Game.Search;
+
+import Game.BoardManager;
+import Game.MovePicker;
+import Game.Board.Move;
+import Game.Pieces.PieceColor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+A negamax alpha-beta search over a BoardManager. Moves are tried in MovePicker's order, with the best move of the
+last search tried first at the root, the transposition table's move tried first elsewhere, and killer moves kept
+for each ply. Positions the table already has a deep enough result for aren't searched again. The leaves are
+resolved by a quiescence search over the captures which don't lose material, so the evaluation is never asked about
+a position in the middle of an exchange. Checks are extended by a ply, and repetitions, the fifty move rule and
+insufficient material are scored as draws.
+A search makes and unmakes moves on the board it is given, so like the board it is confined to one thread, and the
+board must not be used by anything else while a search is running.
+ */
+public class AlphaBeta {
+
+	// the bounds of the scores, and the score of being checkmated at the root (less the plies to the mate)
+	public static final int INFINITY = 32000;
+	public static final int MATE = 31000;
+
+	// the deepest the search can go, counting extensions and the quiescence search
+	public static final int MAX_PLY = 96;
+
+	// the number of nodes between checks of the clock
+	private static final int CLOCK_INTERVAL = 2048;
+
+	private final BoardManager board;
+	private final Evaluation evaluation;
+
+	// the table of results, which may be shared with other searches, or null to search without one
+	private final TranspositionTable table;
+
+	// a picker and two killer moves for each ply, the pickers made as the plies are first reached
+	private final MovePicker[] pickers = new MovePicker[ MAX_PLY ];
+	private final int[][] killers = new int[ MAX_PLY ][ 2 ];
+
+	private int bestMove = Move.NONE;
+	private int bestScore = 0;
+	private long nodes = 0;
+
+	// when the search must stop, and whether it had to stop early
+	private SearchLimits limits = SearchLimits.NONE;
+	private AtomicBoolean stop = new AtomicBoolean();
+	private boolean aborted = false;
+
+	public AlphaBeta(BoardManager board, Evaluation evaluation) {
+		this(board, evaluation, null);
+	}
+
+	/*
+	@param board - the board to search, which the search makes its moves on
+	@param evaluation - how to score the positions at the leaves
+	@param table - the table of results to use, or null for none
+	 */
+	public AlphaBeta(BoardManager board, Evaluation evaluation, TranspositionTable table) {
+		this.board = board;
+		this.evaluation = evaluation;
+		this.table = table;
+	}
+
+	/*
+	----------------------------
+	Searching
+	----------------------------
+	 */
+
+	/*
+	Searches the position on the board to the given depth. The best move found is tried first the next time, so
+	searching again one ply deeper each time (iterative deepening) orders the root well.
+	@param depth - the number of plies to search before the quiescence search takes over
+	@return - the score of the position for the side to move, in centipawns
+	 */
+	public int search(int depth) {
+		aborted = false;
+		int score = search(depth, -INFINITY, INFINITY, 0);
+		if (!aborted)
+			bestScore = score;
+		return bestScore;
+	}
+
+	/*
+	Searches the position on the board as a node partway down a bigger search, which a parallel search hands out
+	@param depth - the number of plies to search before the quiescence search takes over
+	@param alpha, beta - the window to search in
+	@param ply - the plies from the root of the bigger search to this node, at least 1
+	@return - the score of the position for the side to move, or 0 if the search was stopped
+	 */
+	public int searchNode(int depth, int alpha, int beta, int ply) {
+		aborted = false;
+		return search(depth, alpha, beta, ply);
+	}
+
+	private int search(int depth, int alpha, int beta, int ply) {
+		if (depth <= 0)
+			return quiesce(alpha, beta, ply);
+		if (countNode())
+			return 0;
+		if (ply > 0 && isDrawn())
+			return 0;
+		if (ply >= MAX_PLY - 1)
+			return evaluation.evaluate(board);
+
+		PieceColor color = board.getSideToMove();
+		boolean inCheck = board.kingInCheck(color);
+		if (inCheck)
+			depth++;	// look past checks, as they leave few replies
+
+		// use what the table knows: a result searched deep enough ends the search here, and otherwise its move
+		// goes first
+		int hashMove = Move.NONE;
+		if (table != null) {
+			long entry = table.probe(board.getHash());
+			if (entry != 0) {
+				hashMove = TranspositionTable.move(entry);
+				int score = fromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+				if (ply > 0 && TranspositionTable.depth(entry) >= depth && (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER && score >= beta)
+						|| (bound == TranspositionTable.UPPER && score <= alpha)))
+					return score;
+			}
+		}
+		if (ply == 0 && bestMove != Move.NONE)
+			hashMove = bestMove;
+
+		MovePicker picker = picker(ply);
+		picker.reset(color, hashMove, killers[ply][0], killers[ply][1]);
+
+		int alphaAtStart = alpha;
+		int best = -INFINITY, bestHere = Move.NONE, played = 0;
+		for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+			board.makeMove(move);
+			int score = -search(depth - 1, -beta, -alpha, ply + 1);
+			board.unmakeMove();
+			if (aborted)
+				return 0;
+			played++;
+
+			if (score > best) {
+				best = score;
+				bestHere = move;
+				if (ply == 0)
+					bestMove = move;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						if (!Move.isCapture(move))
+							addKiller(move, ply);
+						break;
+					}
+				}
+			}
+		}
+
+		if (played == 0)
+			return inCheck ? -MATE + ply : 0;	// checkmate or stalemate
+
+		if (table != null) {
+			int bound = (best >= beta) ? TranspositionTable.LOWER
+					: (best > alphaAtStart) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+			table.store(board.getHash(), bestHere, toTable(best, ply), depth, bound);
+		}
+		return best;
+	}
+
+	/*
+	Searches the captures which don't lose material until the position is quiet, letting the side to move stand pat
+	on the evaluation instead of taking. A side in check must get out of it, so it searches every move instead.
+	 */
+	private int quiesce(int alpha, int beta, int ply) {
+		if (countNode())
+			return 0;
+		if (isDrawn())
+			return 0;
+		if (ply >= MAX_PLY - 1)
+			return evaluation.evaluate(board);
+
+		PieceColor color = board.getSideToMove();
+		boolean inCheck = board.kingInCheck(color);
+		int best = -INFINITY;
+		MovePicker picker = picker(ply);
+		if (inCheck) {
+			picker.reset(color, Move.NONE, Move.NONE, Move.NONE);
+		} else {
+			best = evaluation.evaluate(board);
+			if (best >= beta)
+				return best;
+			alpha = Math.max(alpha, best);
+			picker.resetCaptures(color);
+		}
+
+		int played = 0;
+		for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+			board.makeMove(move);
+			int score = -quiesce(-beta, -alpha, ply + 1);
+			board.unmakeMove();
+			if (aborted)
+				return 0;
+			played++;
+
+			if (score > best) {
+				best = score;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta)
+						break;
+				}
+			}
+		}
+
+		if (inCheck && played == 0)
+			return -MATE + ply;
+		return best;
+	}
+
+	/*
+	----------------------------
+	Helpers
+	----------------------------
+	 */
+
+	/*
+	Counts a node, checking the stop flag and node limit each time and the clock every so often. Running out of time
+	sets the stop flag, so that anything else searching to the same limits stops too.
+	@return - true if the search must stop
+	 */
+	private boolean countNode() {
+		if (stop.get() || ++nodes >= limits.getMaxNodes())
+			aborted = true;
+		else if (nodes % CLOCK_INTERVAL == 0 && limits.isPastDeadline()) {
+			aborted = true;
+			stop.set(true);
+		}
+		return aborted;
+	}
+
+	private MovePicker picker(int ply) {
+		if (pickers[ply] == null)
+			pickers[ply] = new MovePicker(board);
+		return pickers[ply];
+	}
+
+	private boolean isDrawn() {
+		return board.isRepetition() || board.isFiftyMoveDraw() || board.isInsufficientMaterial();
+	}
+
+	/*
+	Mate scores count the plies from the root, so they are stored counting from the position instead, and turned
+	back when read at another ply
+	 */
+	static int toTable(int score, int ply) {
+		if (score >= MATE - MAX_PLY)
+			return score + ply;
+		if (score <= -MATE + MAX_PLY)
+			return score - ply;
+		return score;
+	}
+
+	static int fromTable(int score, int ply) {
+		if (score >= MATE - MAX_PLY)
+			return score - ply;
+		if (score <= -MATE + MAX_PLY)
+			return score + ply;
+		return score;
+	}
+
+	private void addKiller(int move, int ply) {
+		if (killers[ply][0] != move) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+	}
+
+	/*
+	Determines if a score is a forced mate, for one side or the other
+	 */
+	public static boolean isMateScore(int score) {
+		return Math.abs(score) >= MATE - MAX_PLY;
+	}
+
+	/*
+	Sets when the search must stop. A search which is stopped returns as soon as it notices, keeping the best score
+	of the last search which finished.
+	@param limits - the time, nodes (counted since the search was created) and depth to stop at; only the first
+		two are checked here, the depth is up to whoever calls search
+	@param stop - a flag which stops the search once set, by this thread or any other
+	 */
+	public void setLimits(SearchLimits limits, AtomicBoolean stop) {
+		this.limits = limits;
+		this.stop = stop;
+	}
+
+	/*
+	Returns true if the last search was stopped before it finished
+	 */
+	public boolean wasAborted() {
+		return aborted;
+	}
+
+	/*
+	Returns the best move found at the root, Move.NONE before any search. After a search which ran out of time this
+	may come from the unfinished search, as the move tried first there is the last finished search's best.
+	 */
+	public int getBestMove() {
+		return bestMove;
+	}
+
+	public int getBestScore() {
+		return bestScore;
+	}
+
+	/*
+	Returns the number of positions visited since the search was created
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+}
@@ -0,0 +1,18 @@
+package Game.Search;
+
+import Game.BoardManager;
+
+/*
+Scores a position for the search. Implementations are handed the search's own board, and must leave it as they
+found it.
+ */
+public interface Evaluation {
+
+	/*
+	Scores the position on the board
+	@param board - the board to score
+	@return - the score in centipawns from the side to move's point of view, positive when it stands better
+	 */
+	abstract int evaluate(BoardManager board);
+
+}
@@ -0,0 +1,92 @@
+package Game.Search;
+
+import Func.*;
+import Game.BoardManager;
+import Game.Board.Move;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.*;
+
+/*
+Drives an alpha-beta search one ply deeper at a time until the limits are reached or it is told to stop. Each
+search orders its moves with the best move of the one before, so the deeper searches cost little more than
+searching straight to that depth would, and there is always a move to play: before the first search finishes it
+is the first legal move, and after that the best move of the deepest search so far.
+The search runs on the board it is given and on the calling thread. The best move so far can be read from any
+thread, and any thread can stop the search through the stop flag.
+ */
+public class IterativeDeepening {
+
+	private final BoardManager board;
+	private final Evaluation evaluation;
+	private final TranspositionTable table;
+
+	// the best result so far, read by other threads
+	private volatile SearchResult best = new SearchResult(Move.NONE, 0, 0, 0, 0);
+
+	private static final Logger logger = Logger.getLogger("IterativeDeepening");
+	private static final boolean LOGGING = Consts.LOGGING;
+
+	public IterativeDeepening(BoardManager board, Evaluation evaluation) {
+		this(board, evaluation, null);
+	}
+
+	/*
+	@param board - the board to search on
+	@param evaluation - how to score positions
+	@param table - the table of results to use, which may be shared, or null for none
+	 */
+	public IterativeDeepening(BoardManager board, Evaluation evaluation, TranspositionTable table) {
+		this.board = board;
+		this.evaluation = evaluation;
+		this.table = table;
+	}
+
+	/*
+	Searches the position on the board within the limits. Each call starts a fresh alpha-beta search, so a driver can
+	be used again for the next move, with nothing but the table carried over.
+	@param limits - when to stop searching
+	@param stop - a flag which stops the search as soon as it is set, from this thread or any other. The search
+		sets it itself once the deadline passes.
+	@return - the best move found, with its score and the depth it was found at
+	 */
+	public SearchResult search(SearchLimits limits, AtomicBoolean stop) {
+		long start = System.currentTimeMillis();
+		int[] moves = board.generateLegalMoves(board.getSideToMove());
+		best = new SearchResult((moves.length > 0) ? moves[0] : Move.NONE, 0, 0, 0, 0);
+		if (moves.length <= 1)
+			return best;	// nothing to choose between
+
+		AlphaBeta search = new AlphaBeta(board, evaluation, table);
+		search.setLimits(limits, stop);
+		for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+			int score = search.search(depth);
+			long elapsed = System.currentTimeMillis() - start;
+			if (search.wasAborted()) {
+				// the unfinished search started on the last best move, so anything it replaced it with is better,
+				// though the score and depth stay those of the last finished search (see SearchResult)
+				int move = (search.getBestMove() != Move.NONE) ? search.getBestMove() : best.move;
+				best = new SearchResult(move, best.score, best.depth, search.getNodes(), elapsed);
+				break;
+			}
+
+			best = new SearchResult(search.getBestMove(), score, depth, search.getNodes(), elapsed);
+			if (LOGGING)
+				logger.info("Depth " + depth + ": " + best);
+
+			// stop on a forced mate, or when the next search would most likely not finish in time
+			if (AlphaBeta.isMateScore(score))
+				break;
+			if (limits.hasDeadline() && elapsed * 2 > limits.getDeadline() - start)
+				break;
+		}
+		return best;
+	}
+
+	/*
+	Returns the best result so far, which is safe to call from any thread while a search is running
+	 */
+	public SearchResult getBestSoFar() {
+		return best;
+	}
+
+}
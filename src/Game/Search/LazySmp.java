@@ -0,0 +1,101 @@
+package Game.Search;
+
+import Game.BoardManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+Searches on several threads at once by having every thread search the same position, sharing only the
+transposition table (Lazy SMP). The threads don't divide up the work; instead each one finds the results the others
+are about to need and leaves them in the table. Half of the helper threads start a ply deeper than the main thread,
+so they run ahead of it and are more often searching something it hasn't reached yet.
+The main thread runs an iterative deepening search on the caller's thread and its result is the one reported; the
+helpers each search their own copy of the board and stop as soon as it finishes. A LazySmp keeps its helper threads
+between searches, and only runs one search at a time.
+ */
+public class LazySmp {
+
+	private final Evaluation evaluation;
+	private final TranspositionTable table;
+	private final int threads;
+
+	// the helper threads, which are daemons so they never keep the program running
+	private final ExecutorService helpers;
+
+	/*
+	@param evaluation - how every thread scores positions
+	@param table - the table the threads share
+	@param threads - the number of threads to search with, counting the caller's
+	 */
+	public LazySmp(Evaluation evaluation, TranspositionTable table, int threads) {
+		this.evaluation = evaluation;
+		this.table = table;
+		this.threads = Math.max(1, threads);
+		this.helpers = (this.threads > 1) ? Executors.newFixedThreadPool(this.threads - 1, runnable -> {
+			Thread thread = new Thread(runnable, "LazySmp helper");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	/*
+	Searches the position on the board within the limits
+	@param board - the board to search, which the main thread searches on; it must not be changed until this returns
+	@param limits - when to stop searching, the nodes and depth being counted by the main thread alone
+	@param stop - a flag which stops the search as soon as it is set, from any thread
+	@return - the main thread's result, with the nodes of every thread added up
+	 */
+	public SearchResult search(BoardManager board, SearchLimits limits, AtomicBoolean stop) {
+		AtomicBoolean helpersStop = new AtomicBoolean();
+		SearchLimits helperLimits = new SearchLimits(limits.getDeadline(), Long.MAX_VALUE, SearchLimits.MAX_DEPTH);
+		List<Future<Long>> running = new ArrayList<>();
+		for (int i = 1; i < threads; i++) {
+			BoardManager copy = new BoardManager(board);	// copied here, as the board belongs to this thread
+			int firstDepth = 1 + (i & 1);
+			running.add(helpers.submit(() -> {
+				AlphaBeta search = new AlphaBeta(copy, evaluation, table);
+				search.setLimits(helperLimits, helpersStop);
+				for (int depth = firstDepth; depth <= SearchLimits.MAX_DEPTH && !helpersStop.get(); depth++)
+					search.search(depth);
+				return search.getNodes();
+			}));
+		}
+
+		SearchResult result;
+		try {
+			result = new IterativeDeepening(board, evaluation, table).search(limits, stop);
+		} finally {
+			helpersStop.set(true);
+		}
+
+		long nodes = result.nodes;
+		for (Future<Long> helper : running) {
+			try {
+				nodes += helper.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+		return new SearchResult(result.move, result.score, result.depth, nodes, result.millis);
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/*
+	Stops the helper threads once they are idle. The LazySmp can't search after this.
+	 */
+	public void shutdown() {
+		if (helpers != null)
+			helpers.shutdown();
+	}
+
+}
@@ -0,0 +1,19 @@
+package Game.Search;
+
+import Game.BoardManager;
+import Game.Pieces.PieceColor;
+
+/*
+The default evaluation: the difference between the two colors' piece-square scores, which BoardManager keeps up to
+date as moves are made, so scoring a position costs next to nothing
+ */
+public class PieceSquareEvaluation implements Evaluation {
+
+	@Override
+	public int evaluate(BoardManager board) {
+		int light = board.getPieceSquareScore(PieceColor.light);
+		int dark = board.getPieceSquareScore(PieceColor.dark);
+		return (board.getSideToMove() == PieceColor.light) ? light - dark : dark - light;
+	}
+
+}
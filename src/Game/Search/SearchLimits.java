@@ -0,0 +1,61 @@
+package Game.Search;
+
+/*
+The limits on a search: a time to stop by, a number of nodes and a depth. The search stops at whichever it reaches
+first. A SearchLimits is immutable, so it can be handed to any number of searching threads.
+ */
+public final class SearchLimits {
+
+	// the deepest an iterative deepening search goes when it isn't given a depth
+	public static final int MAX_DEPTH = 64;
+
+	// no limits at all, the search only stops when told to
+	public static final SearchLimits NONE = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE, MAX_DEPTH);
+
+	private final long deadline;
+	private final long maxNodes;
+	private final int maxDepth;
+
+	/*
+	@param deadline - the time to stop by, as given by System.currentTimeMillis(), or Long.MAX_VALUE for none
+	@param maxNodes - the most nodes to visit, or Long.MAX_VALUE for no limit
+	@param maxDepth - the deepest search to run, at most MAX_DEPTH
+	 */
+	public SearchLimits(long deadline, long maxNodes, int maxDepth) {
+		this.deadline = deadline;
+		this.maxNodes = maxNodes;
+		this.maxDepth = Math.min(maxDepth, MAX_DEPTH);
+	}
+
+	/*
+	Creates limits which only stop the search once the given time from now has passed
+	@param millis - the time to search for, in milliseconds
+	 */
+	public static SearchLimits forMillis(long millis) {
+		return new SearchLimits(System.currentTimeMillis() + millis, Long.MAX_VALUE, MAX_DEPTH);
+	}
+
+	public static SearchLimits forDepth(int depth) {
+		return new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE, depth);
+	}
+
+	public static SearchLimits forNodes(long nodes) {
+		return new SearchLimits(Long.MAX_VALUE, nodes, MAX_DEPTH);
+	}
+
+	public long getDeadline() { return deadline; }
+
+	public long getMaxNodes() { return maxNodes; }
+
+	public int getMaxDepth() { return maxDepth; }
+
+	public boolean hasDeadline() { return deadline != Long.MAX_VALUE; }
+
+	/*
+	Determines if the time to stop by has come
+	 */
+	public boolean isPastDeadline() {
+		return System.currentTimeMillis() >= deadline;
+	}
+
+}
@@ -0,0 +1,40 @@
+package Game.Search;
+
+import Game.Board.Move;
+
+/*
+The outcome of a search: the move to play, its score, and how much work went into finding it.
+When a search is stopped part way through a depth, the move may be one that unfinished depth found to beat the last
+best move, while the score and depth are still those of the last depth to finish. The score then belongs to the move
+the new one replaced, and is only a lower bound on how good the new move is.
+ */
+public final class SearchResult {
+
+	final public int move;
+	final public int score;
+	final public int depth;
+	final public long nodes;
+	final public long millis;
+
+	/*
+	@param move - the best move found, or Move.NONE if there are no legal moves
+	@param score - the score of the move for the side to move, in centipawns, from the deepest search which finished
+	@param depth - the depth of the deepest search which finished
+	@param nodes - the number of nodes visited
+	@param millis - the time taken, in milliseconds
+	 */
+	public SearchResult(int move, int score, int depth, long nodes, long millis) {
+		this.move = move;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.millis = millis;
+	}
+
+	@Override
+	public String toString() {
+		return Move.toString(move) + " scores " + score + " at depth " + depth + " after " + nodes + " nodes in "
+				+ millis + " ms";
+	}
+
+}
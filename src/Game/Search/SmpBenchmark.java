@@ -0,0 +1,74 @@
+package Game.Search;
+
+import Game.BoardManager;
+import Game.Perft;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+Measures how the parallel searches scale: the time to search the perft reference positions to a fixed depth, with 1,
+2, 4 and so on up to the given number of threads, first with Lazy SMP (LazySmp) and then with Young Brothers Wait
+(YoungBrothersWait). Every run starts with an empty table, and the speedup is against the same search on one thread.
+Run from the command line:
+	java Game.Search.SmpBenchmark [depth] [threads] [hash mb]
+ */
+public class SmpBenchmark {
+
+	public static void main(String[] args) {
+		java.util.logging.LogManager.getLogManager().reset();		// the search's logging would swamp the results
+
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 8;
+		int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int megabytes = (args.length > 2) ? Integer.parseInt(args[2]) : 64;
+
+		// warm up the JIT, so the first run isn't measured cold
+		for (Perft.Reference reference : Perft.SUITE) {
+			run(false, reference.fen, Math.min(depth, 5), 1, megabytes);
+			run(true, reference.fen, Math.min(depth, 5), 1, megabytes);
+		}
+
+		measure("Lazy SMP", false, depth, maxThreads, megabytes);
+		measure("Young Brothers Wait", true, depth, maxThreads, megabytes);
+	}
+
+	private static void measure(String name, boolean splitting, int depth, int maxThreads, int megabytes) {
+		System.out.println(name);
+		System.out.println(String.format("%-8s %10s %14s %12s %8s", "threads", "ms", "nodes", "nodes/s", "speedup"));
+		long baseline = 0;
+		for (int threads = 1; threads <= maxThreads; threads = (threads * 2 > maxThreads && threads < maxThreads)
+				? maxThreads : threads * 2) {
+			long millis = 0, nodes = 0;
+			for (Perft.Reference reference : Perft.SUITE) {
+				long start = System.nanoTime();
+				nodes += run(splitting, reference.fen, depth, threads, megabytes).nodes;
+				millis += (System.nanoTime() - start) / 1000000;
+			}
+			if (threads == 1)
+				baseline = millis;
+			System.out.println(String.format("%-8d %10d %14d %12d %8.2f", threads, millis, nodes,
+					nodes * 1000 / Math.max(1, millis), (double)baseline / Math.max(1, millis)));
+		}
+	}
+
+	/*
+	Searches one position with a fresh search and table
+	@param splitting - true to use YoungBrothersWait, false to use LazySmp
+	 */
+	private static SearchResult run(boolean splitting, String fen, int depth, int threads, int megabytes) {
+		if (splitting) {
+			YoungBrothersWait ybw = new YoungBrothersWait(new PieceSquareEvaluation(), new TranspositionTable(megabytes),
+					threads);
+			try {
+				return ybw.search(new BoardManager(fen), SearchLimits.forDepth(depth), new AtomicBoolean());
+			} finally {
+				ybw.shutdown();
+			}
+		}
+		LazySmp smp = new LazySmp(new PieceSquareEvaluation(), new TranspositionTable(megabytes), threads);
+		try {
+			return smp.search(new BoardManager(fen), SearchLimits.forDepth(depth), new AtomicBoolean());
+		} finally {
+			smp.shutdown();
+		}
+	}
+
+}
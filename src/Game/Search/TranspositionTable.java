@@ -0,0 +1,177 @@
+package Game.Search;
+
+import Game.Board.Move;
+
+/*
+A fixed size table of search results keyed by Zobrist key: for each position, the depth it was searched to, the
+score, whether the score is exact or only a bound, and the best move. A search looks positions up before searching
+them, so a position reached again by another order of moves (or on a later move of the game) isn't searched twice.
+
+The table is laid out in a long array, two longs per entry and four entries to a 64 byte bucket. An entry packs
+its fields into one long and stores the key xor'd with that long beside it. A read only accepts an entry whose two
+longs xor back to the key it was looking for, so an entry being written by another thread at the same time (or
+torn in half) reads as a miss instead of as someone else's result. This lets any number of searching threads share
+one table without locking; the worst a race can do is lose an entry.
+
+When a bucket is full, the entry left from the oldest search is replaced first, and among entries of the same age
+the shallowest. Call newSearch before each search so the entries of earlier searches age.
+ */
+public final class TranspositionTable {
+
+	// the kinds of score: exact, at least the score (the search failed high), or at most the score (failed low)
+	public static final int EXACT = 3;
+	public static final int LOWER = 1;
+	public static final int UPPER = 2;
+
+	private static final int BUCKET_ENTRIES = 4;
+	private static final int BUCKET_LONGS = BUCKET_ENTRIES * 2;
+
+	// where the fields are packed in an entry; the bound is never 0, so an entry in use is never 0 either
+	private static final int MOVE_BITS = 20;
+	private static final int SCORE_SHIFT = 20;
+	private static final int DEPTH_SHIFT = 36;
+	private static final int BOUND_SHIFT = 44;
+	private static final int AGE_SHIFT = 46;
+	private static final int SCORE_OFFSET = 1 << 15;
+
+	// the entries, each a check (the key xor'd with the data) followed by the data
+	private final long[] entries;
+	private final long bucketMask;
+
+	// the age of the current search, which wraps around after 256 searches
+	private int generation = 0;
+
+	/*
+	Creates an empty table
+	@param megabytes - the memory to use, rounded down to a power of two buckets
+	 */
+	public TranspositionTable(int megabytes) {
+		long buckets = Long.highestOneBit(Math.max(1L, ((long)megabytes << 20) / (BUCKET_LONGS * 8)));
+		buckets = Math.min(buckets, 1L << 27);		// arrays are indexed by int
+		entries = new long[ (int)(buckets * BUCKET_LONGS) ];
+		bucketMask = buckets - 1;
+	}
+
+	/*
+	----------------------------
+	Reading and Writing
+	----------------------------
+	 */
+
+	/*
+	Looks up a position
+	@param key - the Zobrist key of the position
+	@return - the packed entry for the position, to be read with move, score, depth and bound, or 0 if there is none
+	 */
+	public long probe(long key) {
+		int bucket = bucket(key);
+		for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += 2) {
+			long data = entries[slot + 1];
+			if (data != 0 && (entries[slot] ^ data) == key)
+				return data;
+		}
+		return 0L;
+	}
+
+	/*
+	Records the result of searching a position. A result for a position already in the table replaces it, keeping the
+	old best move if the new result has none.
+	@param key - the Zobrist key of the position
+	@param move - the best move found, or Move.NONE
+	@param score - the score found, adjusted so that mate scores count from this position
+	@param depth - the depth the position was searched to
+	@param bound - EXACT, LOWER or UPPER
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int bucket = bucket(key);
+		int victim = bucket;
+		int worst = Integer.MAX_VALUE;
+		for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += 2) {
+			long data = entries[slot + 1];
+			if (data == 0 || (entries[slot] ^ data) == key) {
+				if (data != 0 && move == Move.NONE)
+					move = move(data);
+				victim = slot;
+				break;
+			}
+
+			// older searches count for less than depth does
+			int worth = depth(data) - 8 * ((generation - age(data)) & 0xFF);
+			if (worth < worst) {
+				worst = worth;
+				victim = slot;
+			}
+		}
+
+		long data = (move & ((1L << MOVE_BITS) - 1))
+				| ((long)(score + SCORE_OFFSET) << SCORE_SHIFT)
+				| ((long)Math.max(0, Math.min(depth, 0xFF)) << DEPTH_SHIFT)
+				| ((long)bound << BOUND_SHIFT)
+				| ((long)generation << AGE_SHIFT);
+		entries[victim + 1] = data;
+		entries[victim] = key ^ data;
+	}
+
+	private int bucket(long key) {
+		return (int)(key & bucketMask) * BUCKET_LONGS;
+	}
+
+	/*
+	----------------------------
+	Entries
+	----------------------------
+	 */
+
+	public static int move(long entry) { return (int)(entry & ((1L << MOVE_BITS) - 1)); }
+
+	public static int score(long entry) { return (int)((entry >>> SCORE_SHIFT) & 0xFFFF) - SCORE_OFFSET; }
+
+	public static int depth(long entry) { return (int)((entry >>> DEPTH_SHIFT) & 0xFF); }
+
+	public static int bound(long entry) { return (int)((entry >>> BOUND_SHIFT) & 0x3); }
+
+	private static int age(long entry) { return (int)((entry >>> AGE_SHIFT) & 0xFF); }
+
+	/*
+	----------------------------
+	Upkeep
+	----------------------------
+	 */
+
+	/*
+	Starts a new search, so the entries of the searches before it are replaced first
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & 0xFF;
+	}
+
+	/*
+	Empties the table. This must not be called while a search is using it.
+	 */
+	public void clear() {
+		java.util.Arrays.fill(entries, 0L);
+		generation = 0;
+	}
+
+	/*
+	Estimates how full the table is with entries from the current search, in thousandths, from the first thousand
+	entries
+	 */
+	public int hashfull() {
+		int used = 0, sampled = Math.min(1000, entries.length / 2);
+		for (int i = 0; i < sampled; i++) {
+			long data = entries[i * 2 + 1];
+			if (data != 0 && age(data) == generation)
+				used++;
+		}
+		return used * 1000 / sampled;
+	}
+
+	/*
+	Returns the number of entries the table holds
+	 */
+	public int capacity() {
+		return entries.length / 2;
+	}
+
+}
@@ -0,0 +1,316 @@
+package Game.Search;
+
+import Game.BoardManager;
+import Game.MovePicker;
+import Game.Board.Move;
+import Game.Board.MoveList;
+import Game.Pieces.PieceColor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Searches on several threads by splitting the tree between them (Young Brothers Wait): at each node deep enough to
+be worth splitting, the first move (the eldest brother) is searched alone, and only once it is done are the rest
+(the young brothers) forked as tasks for a ForkJoinPool to share out by work stealing. Waiting for the eldest gives
+the young brothers a good window, and at a node which is going to cut off the eldest usually does so before anything
+is forked. A young brother which causes a cut off cancels its siblings and everything under them as soon as it
+finishes, without waiting for its parent to reach it.
+Each forked task searches its own copy of the board, and the tasks share a transposition table. Nodes too shallow to
+split are searched by a plain AlphaBeta. This is meant to be compared with LazySmp, which shares only the table.
+ */
+public class YoungBrothersWait {
+
+	// the shallowest node whose children are searched in parallel
+	private static final int SPLIT_DEPTH = 4;
+
+	// how often the calling thread checks the clock and stop flag while the pool searches, in milliseconds
+	private static final int WATCH_INTERVAL = 5;
+
+	private final Evaluation evaluation;
+	private final TranspositionTable table;
+	private final ForkJoinPool pool;
+
+	// the nodes visited by every task of the current search, both the split nodes and those searched alone
+	private final AtomicLong nodes = new AtomicLong();
+
+	// the best move of the last finished search at the root
+	private volatile int rootBest = Move.NONE;
+
+	/*
+	@param evaluation - how every task scores positions
+	@param table - the table the tasks share
+	@param threads - the number of threads in the pool
+	 */
+	public YoungBrothersWait(Evaluation evaluation, TranspositionTable table, int threads) {
+		this.evaluation = evaluation;
+		this.table = table;
+		this.pool = new ForkJoinPool(Math.max(1, threads));
+	}
+
+	/*
+	----------------------------
+	Driving the Search
+	----------------------------
+	 */
+
+	/*
+	Searches the position on the board one ply deeper at a time within the limits, the way IterativeDeepening does
+	@param board - the board to search, which is copied before the pool sees it
+	@param limits - when to stop searching, the nodes being counted over every task
+	@param stop - a flag which stops the search as soon as it is set, from any thread
+	@return - the best move found, with its score, the depth it was found at and the nodes of every task
+	 */
+	public SearchResult search(BoardManager board, SearchLimits limits, AtomicBoolean stop) {
+		long start = System.currentTimeMillis();
+		nodes.set(0);
+		int[] moves = board.generateLegalMoves(board.getSideToMove());
+		SearchResult best = new SearchResult((moves.length > 0) ? moves[0] : Move.NONE, 0, 0, 0, 0);
+		if (moves.length <= 1)
+			return best;
+
+		rootBest = Move.NONE;
+		for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+			Split root = new Split();
+			NodeTask task = new NodeTask(new BoardManager(board), depth, -AlphaBeta.INFINITY, AlphaBeta.INFINITY, 0,
+					root, false);
+			Integer score = watch(pool.submit(task), root, limits, stop);
+			long elapsed = System.currentTimeMillis() - start;
+			if (score == null)
+				break;		// stopped part way, so the last finished search stands
+
+			rootBest = task.bestMove;
+			best = new SearchResult(task.bestMove, score, depth, nodes.get(), elapsed);
+			if (AlphaBeta.isMateScore(score))
+				break;
+			if (limits.hasDeadline() && elapsed * 2 > limits.getDeadline() - start)
+				break;
+		}
+		return new SearchResult(best.move, best.score, best.depth, nodes.get(), System.currentTimeMillis() - start);
+	}
+
+	/*
+	Waits for the search at the root to finish, cancelling it if the limits are reached or the stop flag is set
+	@return - the score, or null if the search was stopped before it finished
+	 */
+	private Integer watch(ForkJoinTask<Integer> task, Split root, SearchLimits limits, AtomicBoolean stop) {
+		while (true) {
+			try {
+				int score = task.get(WATCH_INTERVAL, TimeUnit.MILLISECONDS);
+				return root.isCancelled() ? null : score;
+			} catch (TimeoutException e) {
+				if (stop.get() || limits.isPastDeadline() || nodes.get() >= limits.getMaxNodes()) {
+					stop.set(true);
+					root.cancel();
+				}
+			} catch (InterruptedException e) {
+				root.cancel();
+				Thread.currentThread().interrupt();
+				return null;
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	/*
+	Stops the pool's threads once they are idle. The search can't be used after this.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/*
+	----------------------------
+	Tasks
+	----------------------------
+	 */
+
+	/*
+	The cancellation of a node and everything under it. Cancelling a split cancels its children, and a child made
+	after its parent was cancelled starts out cancelled. A parent only holds on to the children still being searched,
+	each being released once its task is done, so cancelling never walks finished parts of the tree.
+	 */
+	private static final class Split {
+
+		// doubles as the stop flag of the AlphaBeta searching under this split, if any
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		private final List<Split> children = new ArrayList<>();
+
+		synchronized Split child() {
+			Split child = new Split();
+			if (cancelled.get())
+				child.cancelled.set(true);
+			else
+				children.add(child);
+			return child;
+		}
+
+		synchronized void release(Split child) {
+			children.remove(child);
+		}
+
+		void cancel() {
+			cancelled.set(true);
+			List<Split> toCancel;
+			synchronized (this) {
+				toCancel = new ArrayList<>(children);
+			}
+			for (Split child : toCancel)
+				child.cancel();
+		}
+
+		boolean isCancelled() {
+			return cancelled.get();
+		}
+	}
+
+	/*
+	Searches one node, on a board no other task touches
+	 */
+	private final class NodeTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BoardManager board;
+		private final int depth;
+		private final int alpha;
+		private final int beta;
+		private final int ply;
+		private final Split parent;
+		private final Split split;
+
+		// true for a young brother, which cancels its siblings (everything under the parent split) as soon as it finds
+		// its parent can cut off
+		private final boolean youngBrother;
+
+		// the best move found, read at the root once the task is done
+		int bestMove = Move.NONE;
+
+		// true once the task has finished without being cancelled, so its score can be trusted
+		volatile boolean finished = false;
+
+		/*
+		@param parent - the split of the node above, which this task's own split is made under
+		 */
+		NodeTask(BoardManager board, int depth, int alpha, int beta, int ply, Split parent, boolean youngBrother) {
+			this.board = board;
+			this.depth = depth;
+			this.alpha = alpha;
+			this.beta = beta;
+			this.ply = ply;
+			this.parent = parent;
+			this.split = parent.child();
+			this.youngBrother = youngBrother;
+		}
+
+		@Override
+		protected Integer compute() {
+			int score = search();
+			// the flag is only ever set, so if it is clear now the search was never cut short
+			finished = !split.isCancelled();
+
+			// failing low here is a cut off for the parent, which makes the rest of the brothers pointless
+			if (finished && youngBrother && score <= alpha)
+				parent.cancel();
+			parent.release(split);
+			return score;
+		}
+
+		private int search() {
+			if (split.isCancelled())
+				return 0;
+			if (depth < SPLIT_DEPTH && ply > 0)
+				return searchAlone();
+			nodes.incrementAndGet();		// AlphaBeta counts the nodes below here, this counts the split nodes
+
+			PieceColor color = board.getSideToMove();
+			if (ply > 0 && (board.isRepetition() || board.isFiftyMoveDraw() || board.isInsufficientMaterial()))
+				return 0;
+			boolean inCheck = board.kingInCheck(color);
+			int depth = inCheck ? this.depth + 1 : this.depth;
+
+			// use what the table knows, as AlphaBeta does
+			int hashMove = (ply == 0) ? rootBest : Move.NONE;
+			long entry = table.probe(board.getHash());
+			if (entry != 0) {
+				if (hashMove == Move.NONE)
+					hashMove = TranspositionTable.move(entry);
+				int score = AlphaBeta.fromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+				if (ply > 0 && TranspositionTable.depth(entry) >= depth && (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER && score >= beta)
+						|| (bound == TranspositionTable.UPPER && score <= alpha)))
+					return score;
+			}
+
+			// put the moves in the order MovePicker hands them out
+			MovePicker picker = new MovePicker(board, color, hashMove, Move.NONE, Move.NONE);
+			MoveList moves = new MoveList();
+			for (int move = picker.next(); move != Move.NONE; move = picker.next())
+				moves.add(move);
+			if (moves.isEmpty())
+				return inCheck ? -AlphaBeta.MATE + ply : 0;
+
+			// the eldest brother, searched on this board before anything is forked
+			int alpha = this.alpha;
+			int eldest = moves.get(0);
+			board.makeMove(eldest);
+			int best = -new NodeTask(board, depth - 1, -beta, -alpha, ply + 1, split, false).compute();
+			board.unmakeMove();
+			if (split.isCancelled())
+				return 0;
+			bestMove = eldest;
+			alpha = Math.max(alpha, best);
+
+			// the young brothers, forked together once the eldest has given them a window
+			if (alpha < beta && moves.size() > 1) {
+				Split brothers = split.child();
+				NodeTask[] tasks = new NodeTask[ moves.size() - 1 ];
+				for (int i = 0; i < tasks.length; i++) {
+					BoardManager copy = new BoardManager(board);
+					copy.makeMove(moves.get(i + 1));
+					tasks[i] = new NodeTask(copy, depth - 1, -beta, -alpha, ply + 1, brothers, true);
+				}
+				for (NodeTask task : tasks)
+					task.fork();
+
+				// a brother which cuts off cancels the others itself, so those joined after it return at once. The
+				// scores of the cancelled ones are left out, as they stopped part way.
+				for (int i = 0; i < tasks.length; i++) {
+					int score = -tasks[i].join();
+					if (split.isCancelled())
+						return 0;
+					if (tasks[i].finished && score > best) {
+						best = score;
+						bestMove = moves.get(i + 1);
+					}
+				}
+			}
+
+			int bound = (best >= beta) ? TranspositionTable.LOWER
+					: (best > this.alpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+			table.store(board.getHash(), bestMove, AlphaBeta.toTable(best, ply), depth, bound);
+			return best;
+		}
+
+		/*
+		Searches a node too shallow to split with a plain alpha-beta search
+		 */
+		private int searchAlone() {
+			AlphaBeta search = new AlphaBeta(board, evaluation, table);
+			search.setLimits(SearchLimits.NONE, split.cancelled);
+			int score = search.searchNode(depth, alpha, beta, ply);
+			nodes.addAndGet(search.getNodes());
+			return score;
+		}
+	}
+
+}
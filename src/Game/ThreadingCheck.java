@@ -0,0 +1,144 @@
+package Game;
+
+import Game.Board.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+Checks the threading contract described on BoardManager: boards made with the copy constructor or from a Position
+snapshot share nothing with the board they came from, so several threads can walk their own boards at once and each
+gets the same answers a single thread does. For every perft reference position, each thread walks a copy and a board
+built from a snapshot, and their counts and Zobrist keys must match the single threaded walk of the original.
+The copies are taken partway through a game as well, so the undo stack is checked to come across with them.
+Run from the command line:
+	java Game.ThreadingCheck [depth] [threads]
+ */
+public class ThreadingCheck {
+
+	/*
+	Checks every reference position, printing what doesn't match
+	@param depth - the perft depth each thread walks to
+	@param threads - the number of threads walking at once
+	@return - true if every count and key matched
+	 */
+	public static boolean run(int depth, int threads) throws InterruptedException {
+		boolean passed = true;
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		try {
+			for (Perft.Reference reference : Perft.SUITE) {
+				BoardManager original = reference.create();
+				long startHash = original.getHash();
+				passed &= check(reference.name, original, 0, startHash, depth, threads, workers);
+
+				// the same again with moves made, so the copies have an undo stack to carry
+				int movesMade = 0;
+				for (int i = 0; i < 2; i++) {
+					int[] moves = original.generateLegalMoves(original.getSideToMove());
+					if (moves.length == 0)
+						break;
+					original.makeMove(moves[0]);
+					movesMade++;
+				}
+				passed &= check(reference.name + " after moves", original, movesMade, startHash, depth, threads,
+						workers);
+			}
+		} finally {
+			workers.shutdown();
+		}
+		return passed;
+	}
+
+	/*
+	Walks copies of the board on several threads at once and compares them with the original
+	@param board - the board to copy, which is only read here once the copies are made
+	@param movesMade - the moves made on the board since startHash, which the copies must be able to undo
+	@param startHash - the key of the position before those moves
+	@return - true if every count and key matched
+	 */
+	private static boolean check(String name, BoardManager board, int movesMade, long startHash, int depth,
+								 int threads, ExecutorService workers) throws InterruptedException {
+		long expectedNodes = new Perft().perft(board, depth);
+		long expectedHash = board.getHash();
+		Position position = board.getPosition();
+
+		// every board is made on this thread, then handed to a worker which is the only thread to touch it after
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			BoardManager copy = new BoardManager(board);
+			BoardManager built = new BoardManager(position);
+			results.add(workers.submit(() -> walk(copy, depth, expectedNodes, expectedHash)
+					+ walk(built, depth, expectedNodes, expectedHash)
+					+ unwind(copy, movesMade, startHash)));
+		}
+
+		boolean passed = true;
+		for (Future<String> result : results) {
+			try {
+				String problems = result.get();
+				if (!problems.isEmpty()) {
+					System.out.println(name + ":" + problems);
+					passed = false;
+				}
+			} catch (ExecutionException e) {
+				System.out.println(name + ": " + e.getCause());
+				passed = false;
+			}
+		}
+		if (board.getHash() != expectedHash) {
+			System.out.println(name + ": the original's key changed while the copies were walked");
+			passed = false;
+		}
+		if (passed)
+			System.out.println(name + ": ok");
+		return passed;
+	}
+
+	/*
+	Walks a board and checks the count and that the board is left as it was
+	@return - a description of anything which didn't match, empty if everything did
+	 */
+	private static String walk(BoardManager board, int depth, long expectedNodes, long expectedHash) {
+		String problems = "";
+		if (board.getHash() != expectedHash)
+			problems += " key " + Long.toHexString(board.getHash()) + " expected " + Long.toHexString(expectedHash);
+		long nodes = new Perft().perft(board, depth);
+		if (nodes != expectedNodes)
+			problems += " count " + nodes + " expected " + expectedNodes;
+		if (board.getHash() != expectedHash)
+			problems += " key changed by the walk";
+		return problems;
+	}
+
+	/*
+	Undoes the moves made on the original before the copy was taken, which only works if its undo stack came across
+	@return - a description of anything which didn't match, empty if everything did
+	 */
+	private static String unwind(BoardManager copy, int movesMade, long startHash) {
+		for (int i = 0; i < movesMade; i++)
+			copy.unmakeMove();
+		String problems = "";
+		if (copy.getHash() != startHash)
+			problems += " key after undoing the moves " + Long.toHexString(copy.getHash()) + " expected "
+					+ Long.toHexString(startHash);
+		if (new BoardManager(copy.getPosition()).getHash() != copy.getHash())
+			problems += " key after undoing the moves doesn't match a board built from its position";
+		return problems;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		java.util.logging.LogManager.getLogManager().reset();		// the board's logging would swamp the results
+
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+		int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+		boolean passed = run(depth, threads);
+		System.out.println(passed ? "Every copy matched" : "Some copies did not match");
+		if (!passed)
+			System.exit(1);
+	}
+
+}
@@ -11,6 +11,7 @@ import java.awt.Graphics;
 // Uses all classes in func
 import Func.*;
 import Game.GameManagers.*;
+import Game.Players.*;
 
 
 public class MenuFrame extends HidingJFrame{
@@ -154,10 +155,13 @@ public class MenuFrame extends HidingJFrame{
 
 
 		GameManager gm = null;
+		Player computer;
 		switch (players) {
-			case 0: gm = new GameManagerNoPlayer();
+			case 0: if ((computer = chooseComputerPlayer()) == null) return;
+					gm = new GameManagerNoPlayer(computer);
 					break;
-			case 1: gm = new GameManagerOnePlayer();
+			case 1: if ((computer = chooseComputerPlayer()) == null) return;
+					gm = new GameManagerOnePlayer(computer);
 					break;
 			case 2: gm = new GameManagerTwoPlayer();
 					break;
@@ -169,6 +173,27 @@ public class MenuFrame extends HidingJFrame{
 		gm.setVisible(true);					// let's play a game
 	}
 
+	/*
+	Asks which computer player to play against
+	@return - the chosen player, or null if the dialog was closed
+	 */
+	private Player chooseComputerPlayer() {
+		String[] options = {"Search", "God"};
+		int choice = JOptionPane.showOptionDialog(this,
+				"Which computer player?",
+				"New Game",
+				JOptionPane.DEFAULT_OPTION,
+				JOptionPane.QUESTION_MESSAGE,
+				null,
+				options,
+				options[0] );
+		switch (choice) {
+			case 0: return new SearchPlayer();
+			case 1: return new God(0.15, 0.15, 0.7);
+			default: return null;
+		}
+	}
+
 	@Override
 	public void windowOpened(WindowEvent e) {
 		super.windowClosed(e);